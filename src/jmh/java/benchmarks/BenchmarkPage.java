@@ -0,0 +1,41 @@
+package benchmarks;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import pages.BasePage;
+import pages.ElementProperty;
+import pages.ElementState;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Exposes the protected BasePage helpers to the benchmarks.
+ */
+public class BenchmarkPage extends BasePage {
+
+    public BenchmarkPage(WebDriver driver) {
+        super(driver);
+    }
+
+    public WebElement clickable(By locator) {
+        return waitForElementToBeClickable(locator);
+    }
+
+    public WebElement visible(By locator) {
+        return waitForElementToBeVisible(locator);
+    }
+
+    public boolean visibleNow(By locator) {
+        return isElementVisibleNow(locator);
+    }
+
+    public void type(By locator, String text) {
+        clearAndType(locator, text);
+    }
+
+    public Map<By, ElementState> read(Collection<By> locators) {
+        return readElements(locators, ElementProperty.TEXT, ElementProperty.DISPLAYED);
+    }
+}
@@ -0,0 +1,95 @@
+package benchmarks;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends a JMH run to the benchmark history and compares it with the stored baseline.
+ * Exits with status 1 when a benchmark got slower than the allowed threshold, or when there is no
+ * baseline yet and jmh.updateBaseline is not set.
+ * Usage: BenchmarkRegressionCheck results.json baseline.json history.csv
+ * System properties: jmh.regressionThreshold (percent, default 20), jmh.updateBaseline (default false)
+ */
+public class BenchmarkRegressionCheck {
+
+    public static void main(String[] args) throws IOException {
+        Path results = Paths.get(args[0]);
+        Path baseline = Paths.get(args[1]);
+        Path history = Paths.get(args[2]);
+        double threshold = Double.parseDouble(System.getProperty("jmh.regressionThreshold", "20"));
+
+        Map<String, double[]> current = readScores(results);
+        if (Boolean.parseBoolean(System.getProperty("jmh.updateBaseline", "false"))) {
+            appendHistory(history, current);
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(results, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Benchmark baseline written to " + baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.out.println("No benchmark baseline at " + baseline + ", create it with -Djmh.updateBaseline=true");
+            System.exit(1);
+        }
+        appendHistory(history, current);
+
+        Map<String, double[]> reference = readScores(baseline);
+        boolean regressed = false;
+        for (Map.Entry<String, double[]> entry : current.entrySet()) {
+            double[] before = reference.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            double change = (entry.getValue()[0] - before[0]) / before[0] * 100;
+            String line = String.format("%-70s %10.3f -> %10.3f (%+.1f%%)", entry.getKey(), before[0], entry.getValue()[0], change);
+            if (change > threshold) {
+                regressed = true;
+                System.out.println("REGRESSION " + line);
+            } else {
+                System.out.println("ok         " + line);
+            }
+        }
+        if (regressed) {
+            System.out.println("Benchmarks regressed by more than " + threshold + "% against " + baseline);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, double[]> readScores(Path file) throws IOException {
+        Map<String, double[]> scores = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<Map<String, Object>> runs = new Json().toType(reader, Json.LIST_OF_MAPS_TYPE);
+            for (Map<String, Object> run : runs) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> metric = (Map<String, Object>) run.get("primaryMetric");
+                scores.put((String) run.get("benchmark"), new double[]{
+                        Double.parseDouble(String.valueOf(metric.get("score"))),
+                        Double.parseDouble(String.valueOf(metric.get("scoreError")))});
+            }
+        }
+        return scores;
+    }
+
+    private static void appendHistory(Path history, Map<String, double[]> scores) throws IOException {
+        Files.createDirectories(history.toAbsolutePath().getParent());
+        StringBuilder lines = new StringBuilder();
+        if (!Files.exists(history)) {
+            lines.append("timestamp,benchmark,score,error\n");
+        }
+        String timestamp = Instant.now().toString();
+        scores.forEach((benchmark, score) -> lines.append(timestamp).append(',').append(benchmark).append(',')
+                .append(score[0]).append(',').append(score[1]).append('\n'));
+        Files.writeString(history, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
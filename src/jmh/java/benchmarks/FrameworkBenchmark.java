@@ -0,0 +1,141 @@
+package benchmarks;
+
+import core.ConfigReader;
+import core.DriverFactory;
+import hooks.Hooks;
+import io.cucumber.java.Scenario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import pages.LoginPage;
+import utils.LoggerUtil;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the framework's own per-action overhead against StubWebDriver.
+ * Run with: mvn -Pbenchmark -DskipTests verify
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FrameworkBenchmark {
+    private static final Logger logger = LoggerUtil.getLogger(FrameworkBenchmark.class);
+    private static final By USERNAME = By.id("user-name");
+    private static final List<By> FORM_FIELDS = List.of(By.id("user-name"), By.id("password"), By.id("login-button"),
+            By.cssSelector("[data-test='error']"), By.name("remember"));
+
+    private LocalHttpFixture fixture;
+    private Hooks hooks;
+    private Scenario scenario;
+    private WebDriver driver;
+    private BenchmarkPage page;
+    private LoginPage loginPage;
+
+    @Setup(Level.Trial)
+    public void startFixture() throws IOException {
+        // Keep file output, session recycling and the process scan out of the measured framework overhead
+        System.setProperty("commandMetrics.enabled", "false");
+        System.setProperty("profiler.enabled", "false");
+        System.setProperty("recycle.maxScenarios", "0");
+        System.setProperty("recycle.maxAgeMinutes", "0");
+        System.setProperty("recycle.maxRssMb", "0");
+        System.setProperty("reaper.enabled", "false");
+        fixture = new LocalHttpFixture();
+        String fixtureUrl = fixture.getUrl();
+        DriverFactory.setBrowserLauncher(browser -> new StubWebDriver(fixtureUrl));
+        Hooks.setupAll();
+        hooks = new Hooks();
+        scenario = StubScenarioState.newScenario();
+        DriverFactory.initDriver();
+        driver = DriverFactory.getDriver();
+        page = new BenchmarkPage(driver);
+        loginPage = new LoginPage(driver);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopFixture() {
+        DriverFactory.releaseDriver();
+        Hooks.tearDownAll();
+        fixture.close();
+    }
+
+    @Benchmark
+    public Object pageConstruction() {
+        return new LoginPage(driver);
+    }
+
+    @Benchmark
+    public Object waitForClickable() {
+        return page.clickable(USERNAME);
+    }
+
+    @Benchmark
+    public Object waitForVisible() {
+        return page.visible(USERNAME);
+    }
+
+    @Benchmark
+    public boolean probeVisibleNow() {
+        return page.visibleNow(USERNAME);
+    }
+
+    @Benchmark
+    public void typeIntoCachedElement() {
+        page.type(USERNAME, "standard_user");
+    }
+
+    @Benchmark
+    public void loginPageEnterUsername() {
+        loginPage.enterUsername("standard_user");
+    }
+
+    @Benchmark
+    public Object batchedRead() {
+        return page.read(FORM_FIELDS);
+    }
+
+    @Benchmark
+    public void loggerElementActionDisabled() {
+        LoggerUtil.logElementAction(logger, "Entering username", USERNAME);
+    }
+
+    @Benchmark
+    public void loggerBrowserActionDisabled() {
+        LoggerUtil.logBrowserAction(logger, "Navigated to: {}", ConfigReader.getBaseUrl());
+    }
+
+    @Benchmark
+    public void configLookups(Blackhole blackhole) {
+        blackhole.consume(ConfigReader.getExplicitWait());
+        blackhole.consume(ConfigReader.getBaseUrl());
+        blackhole.consume(ConfigReader.isHighlightElements());
+    }
+
+    @Benchmark
+    public void hooksScenarioLifecycle() {
+        // The first getDriver() of a scenario leases and resets the session, afterScenario hands it back
+        DriverFactory.releaseDriver();
+        hooks.beforeScenario(scenario);
+        DriverFactory.getDriver();
+        hooks.afterScenario(scenario);
+    }
+}
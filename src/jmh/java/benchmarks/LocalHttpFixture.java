@@ -0,0 +1,40 @@
+package benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal local HTTP server serving a login-like page, used as the navigation target of StubWebDriver.
+ */
+public class LocalHttpFixture implements AutoCloseable {
+    private static final byte[] PAGE = ("<html><head><title>Fixture</title></head><body>"
+            + "<input id=\"user-name\"/><input id=\"password\" type=\"password\"/>"
+            + "<input id=\"login-button\" type=\"submit\"/></body></html>").getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+
+    public LocalHttpFixture() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, PAGE.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(PAGE);
+            }
+        });
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
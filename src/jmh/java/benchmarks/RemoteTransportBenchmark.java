@@ -0,0 +1,64 @@
+package benchmarks;
+
+import core.RemoteSessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the remote transport against StubRemoteEndpoint: one command round trip on a running
+ * session, and a whole session start and quit, with the shared keep-alive client and with
+ * Selenium's default client per session.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RemoteTransportBenchmark {
+    @Param({"true", "false"})
+    private String sharedClient;
+
+    private StubRemoteEndpoint endpoint;
+    private WebDriver driver;
+
+    @Setup(Level.Trial)
+    public void startEndpoint() throws IOException {
+        endpoint = new StubRemoteEndpoint();
+        System.setProperty("remote.url", endpoint.getUrl());
+        System.setProperty("remote.sharedClient", sharedClient);
+        driver = RemoteSessionFactory.create(new ChromeOptions());
+    }
+
+    @TearDown(Level.Trial)
+    public void stopEndpoint() {
+        driver.quit();
+        endpoint.close();
+    }
+
+    @Benchmark
+    public String remoteCommand() {
+        return driver.getCurrentUrl();
+    }
+
+    @Benchmark
+    public void remoteSessionLifecycle() {
+        RemoteSessionFactory.create(new ChromeOptions()).quit();
+    }
+}
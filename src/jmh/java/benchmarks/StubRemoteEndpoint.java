@@ -0,0 +1,61 @@
+package benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process W3C WebDriver endpoint that answers every command without a browser,
+ * used to measure the remote transport of RemoteSessionFactory.
+ */
+public class StubRemoteEndpoint implements AutoCloseable {
+    private final HttpServer server;
+    private final AtomicInteger sessions = new AtomicInteger();
+
+    public StubRemoteEndpoint() throws IOException {
+        // Without TCP_NODELAY small responses wait for delayed ACKs and every command takes ~40 ms
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (InputStream request = exchange.getRequestBody()) {
+            request.readAllBytes();
+        }
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        String value;
+        if ("POST".equals(method) && path.equals("/session")) {
+            value = "{\"sessionId\":\"stub-" + sessions.incrementAndGet() + "\",\"capabilities\":{\"browserName\":\"chrome\"}}";
+        } else if ("GET".equals(method) && path.endsWith("/url")) {
+            value = "\"http://stub/\"";
+        } else {
+            value = "null";
+        }
+        byte[] body = ("{\"value\":" + value + "}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
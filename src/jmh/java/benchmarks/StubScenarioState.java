@@ -0,0 +1,78 @@
+package benchmarks;
+
+import io.cucumber.core.backend.Status;
+import io.cucumber.core.backend.TestCaseState;
+import io.cucumber.java.Scenario;
+
+import java.lang.reflect.Constructor;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Passed scenario state used to drive Hooks outside of a Cucumber run.
+ */
+public class StubScenarioState implements TestCaseState {
+
+    /**
+     * Create a Cucumber Scenario backed by this state.
+     * The Scenario constructor is package-private, so it is opened through reflection.
+     * @return Scenario for hook methods
+     */
+    public static Scenario newScenario() {
+        try {
+            Constructor<Scenario> constructor = Scenario.class.getDeclaredConstructor(TestCaseState.class);
+            constructor.setAccessible(true);
+            return constructor.newInstance(new StubScenarioState());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create benchmark scenario", e);
+        }
+    }
+
+    @Override
+    public Collection<String> getSourceTagNames() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public Status getStatus() {
+        return Status.PASSED;
+    }
+
+    @Override
+    public boolean isFailed() {
+        return false;
+    }
+
+    @Override
+    public void attach(byte[] data, String mediaType, String name) {
+    }
+
+    @Override
+    public void attach(String data, String mediaType, String name) {
+    }
+
+    @Override
+    public void log(String text) {
+    }
+
+    @Override
+    public String getName() {
+        return "Benchmark scenario";
+    }
+
+    @Override
+    public String getId() {
+        return "benchmark-scenario";
+    }
+
+    @Override
+    public URI getUri() {
+        return URI.create("classpath:benchmarks/benchmark.feature");
+    }
+
+    @Override
+    public Integer getLine() {
+        return 1;
+    }
+}
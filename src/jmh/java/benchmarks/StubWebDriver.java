@@ -0,0 +1,329 @@
+package benchmarks;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.logging.Logs;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory WebDriver for measuring framework overhead without a browser.
+ * Every element lookup succeeds immediately, scripts return canned answers and
+ * navigation performs a real HTTP request against the local fixture whatever the target URL,
+ * so benchmarks never leave the machine.
+ */
+public class StubWebDriver implements WebDriver, JavascriptExecutor, TakesScreenshot {
+    static final byte[] PNG = Base64.getDecoder().decode(
+            "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mP8z8BQDwAEhQGAhKmMIQAAAABJRU5ErkJggg==");
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final URI fixtureUri;
+    private String currentUrl = "data:,";
+
+    public StubWebDriver(String fixtureUrl) {
+        this.fixtureUri = URI.create(fixtureUrl);
+    }
+
+    @Override
+    public void get(String url) {
+        try {
+            client.send(HttpRequest.newBuilder(fixtureUri).build(), HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        currentUrl = url;
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        return currentUrl;
+    }
+
+    @Override
+    public String getTitle() {
+        return "Fixture";
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return List.of(new StubWebElement(by.toString()));
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return new StubWebElement(by.toString());
+    }
+
+    @Override
+    public String getPageSource() {
+        return "";
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void quit() {
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        return Set.of("main");
+    }
+
+    @Override
+    public String getWindowHandle() {
+        return "main";
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        return new StubTargetLocator();
+    }
+
+    @Override
+    public Navigation navigate() {
+        return new StubNavigation();
+    }
+
+    @Override
+    public Options manage() {
+        return new StubOptions();
+    }
+
+    @Override
+    public Object executeScript(String script, Object... args) {
+        if (script.contains("document.readyState")) {
+            return "complete";
+        }
+        if (args.length == 3 && args[0] instanceof List) {
+            // Batched read: one state per query
+            List<Object> states = new ArrayList<>();
+            for (Object ignored : (List<?>) args[0]) {
+                Map<String, Object> state = new HashMap<>();
+                state.put("TEXT", "text");
+                state.put("VALUE", "");
+                state.put("DISPLAYED", true);
+                state.put("ENABLED", true);
+                state.put("attributes", Collections.emptyMap());
+                states.add(state);
+            }
+            return states;
+        }
+        if (args.length == 2) {
+            // Presence and visibility probe
+            return 2L;
+        }
+        return null;
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, Object... args) {
+        if (script.contains("__pageReady")) {
+            // Page readiness check
+            return true;
+        }
+        if (script.contains("MutationObserver")) {
+            // Element wait: the condition holds at once
+            return "GONE".equals(args[2]) ? Boolean.TRUE : new StubWebElement("waited");
+        }
+        return 0L;
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        return target.convertFromPngBytes(PNG);
+    }
+
+    private class StubNavigation implements Navigation {
+        @Override
+        public void back() {
+        }
+
+        @Override
+        public void forward() {
+        }
+
+        @Override
+        public void to(String url) {
+            get(url);
+        }
+
+        @Override
+        public void to(URL url) {
+            get(url.toString());
+        }
+
+        @Override
+        public void refresh() {
+            get(currentUrl);
+        }
+    }
+
+    private class StubTargetLocator implements TargetLocator {
+        @Override
+        public WebDriver frame(int index) {
+            return StubWebDriver.this;
+        }
+
+        @Override
+        public WebDriver frame(String nameOrId) {
+            return StubWebDriver.this;
+        }
+
+        @Override
+        public WebDriver frame(WebElement frameElement) {
+            return StubWebDriver.this;
+        }
+
+        @Override
+        public WebDriver parentFrame() {
+            return StubWebDriver.this;
+        }
+
+        @Override
+        public WebDriver window(String nameOrHandle) {
+            return StubWebDriver.this;
+        }
+
+        @Override
+        public WebDriver newWindow(WindowType typeHint) {
+            return StubWebDriver.this;
+        }
+
+        @Override
+        public WebDriver defaultContent() {
+            return StubWebDriver.this;
+        }
+
+        @Override
+        public WebElement activeElement() {
+            return new StubWebElement("active");
+        }
+
+        @Override
+        public Alert alert() {
+            throw new NoAlertPresentException();
+        }
+    }
+
+    private static class StubOptions implements Options {
+        @Override
+        public void addCookie(Cookie cookie) {
+        }
+
+        @Override
+        public void deleteCookieNamed(String name) {
+        }
+
+        @Override
+        public void deleteCookie(Cookie cookie) {
+        }
+
+        @Override
+        public void deleteAllCookies() {
+        }
+
+        @Override
+        public Set<Cookie> getCookies() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public Cookie getCookieNamed(String name) {
+            return null;
+        }
+
+        @Override
+        public Timeouts timeouts() {
+            return new StubTimeouts();
+        }
+
+        @Override
+        public Window window() {
+            return new StubWindow();
+        }
+
+        @Override
+        public Logs logs() {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static class StubTimeouts implements Timeouts {
+        @Override
+        public Timeouts implicitlyWait(long time, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public Timeouts setScriptTimeout(long time, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public Timeouts pageLoadTimeout(long time, TimeUnit unit) {
+            return this;
+        }
+    }
+
+    private static class StubWindow implements Window {
+        @Override
+        public Dimension getSize() {
+            return new Dimension(1920, 1080);
+        }
+
+        @Override
+        public void setSize(Dimension targetSize) {
+        }
+
+        @Override
+        public Point getPosition() {
+            return new Point(0, 0);
+        }
+
+        @Override
+        public void setPosition(Point targetPosition) {
+        }
+
+        @Override
+        public void maximize() {
+        }
+
+        @Override
+        public void minimize() {
+        }
+
+        @Override
+        public void fullscreen() {
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package benchmarks;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+
+/**
+ * In-memory element that is always displayed, enabled and interactable.
+ */
+public class StubWebElement implements WebElement {
+    private final String id;
+    private final StringBuilder value = new StringBuilder();
+
+    public StubWebElement(String id) {
+        this.id = id;
+    }
+
+    @Override
+    public void click() {
+    }
+
+    @Override
+    public void submit() {
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        for (CharSequence keys : keysToSend) {
+            value.append(keys);
+        }
+    }
+
+    @Override
+    public void clear() {
+        value.setLength(0);
+    }
+
+    @Override
+    public String getTagName() {
+        return "input";
+    }
+
+    @Override
+    public String getAttribute(String name) {
+        return "value".equals(name) ? value.toString() : null;
+    }
+
+    @Override
+    public boolean isSelected() {
+        return false;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public String getText() {
+        return id;
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return List.of(new StubWebElement(by.toString()));
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return new StubWebElement(by.toString());
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        return true;
+    }
+
+    @Override
+    public Point getLocation() {
+        return new Point(0, 0);
+    }
+
+    @Override
+    public Dimension getSize() {
+        return new Dimension(100, 20);
+    }
+
+    @Override
+    public Rectangle getRect() {
+        return new Rectangle(getLocation(), getSize());
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        return "";
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        return target.convertFromPngBytes(StubWebDriver.PNG);
+    }
+}
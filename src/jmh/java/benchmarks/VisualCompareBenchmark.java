@@ -0,0 +1,75 @@
+package benchmarks;
+
+import core.TileComparator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Rectangle;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a 1920x1080 capture with its baseline: tile hashing when nothing changed, when one
+ * small area changed, and the full-image pixel diff the tile hashes avoid.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VisualCompareBenchmark {
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+
+    private final TileComparator comparator = new TileComparator(64, 16, 0.5);
+    private int[] baseline;
+    private long[] baselineHashes;
+    private int[] unchanged;
+    private int[] changed;
+
+    @Setup
+    public void createImages() {
+        baseline = new int[WIDTH * HEIGHT];
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                int shade = (x + y) * 255 / (WIDTH + HEIGHT);
+                // Text-like stripes so tiles differ from each other
+                baseline[y * WIDTH + x] = (y % 24 < 2 && x % 9 < 6) ? 0xFF000000 : 0xFF000000 | shade << 16 | shade << 8 | shade;
+            }
+        }
+        baselineHashes = comparator.hash(baseline, WIDTH, HEIGHT);
+        unchanged = baseline.clone();
+        changed = baseline.clone();
+        for (int y = 500; y < 520; y++) {
+            for (int x = 900; x < 960; x++) {
+                changed[y * WIDTH + x] = 0xFFFF0000;
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Rectangle> tileCompareUnchanged() {
+        return comparator.compare(unchanged, comparator.hash(unchanged, WIDTH, HEIGHT), baselineHashes,
+                () -> baseline, WIDTH, HEIGHT);
+    }
+
+    @Benchmark
+    public List<Rectangle> tileCompareOneRegionChanged() {
+        return comparator.compare(changed, comparator.hash(changed, WIDTH, HEIGHT), baselineHashes,
+                () -> baseline, WIDTH, HEIGHT);
+    }
+
+    @Benchmark
+    public int fullPixelDiff() {
+        return comparator.countDiffering(changed, baseline, WIDTH, new Rectangle(0, 0, WIDTH, HEIGHT));
+    }
+}
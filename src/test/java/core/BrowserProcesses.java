@@ -0,0 +1,249 @@
+package core;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import utils.LoggerUtil;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the local browser process behind a session, measures its memory and kills processes
+ * that outlived their run. Driver services are started with an owner marker in their environment,
+ * which the browsers inherit, so processes of this framework are told apart from other browsers:
+ * a marked process whose owning JVM is gone is an orphan. Unmarked processes are left alone unless
+ * reaper.killUnmarkedDrivers is set. Memory is read from /proc, so it is only available on Linux.
+ */
+public class BrowserProcesses {
+    private static final Logger logger = LoggerUtil.getLogger(BrowserProcesses.class);
+    private static final String OWNER_VARIABLE = "WEB_AUTOMATION_OWNER";
+    private static final Set<String> DRIVER_BINARIES = Set.of("chromedriver", "geckodriver", "msedgedriver");
+    private static final Path PROC = Paths.get("/proc");
+
+    private static final Map<WebDriver, Long> browserPids = new ConcurrentHashMap<>();
+    private static volatile boolean reaped;
+
+    /**
+     * Environment for driver services started by this JVM
+     * @return Owner marker identifying this JVM by pid and start time
+     */
+    public static Map<String, String> ownerEnvironment() {
+        return Map.of(OWNER_VARIABLE, owner(ProcessHandle.current()));
+    }
+
+    /**
+     * Remember the browser process of a newly started local session
+     * @param driver Session to look up; remote and unknown browsers are ignored
+     */
+    public static void register(WebDriver driver) {
+        long pid = findBrowserPid(driver);
+        if (pid > 0) {
+            browserPids.put(driver, pid);
+            logger.debug("Browser process of new session: {}", pid);
+        }
+    }
+
+    /**
+     * Forget a session that has quit
+     * @param driver Session previously passed to register()
+     */
+    public static void forget(WebDriver driver) {
+        browserPids.remove(driver);
+    }
+
+    /**
+     * Executable of a local session's browser
+     * @param driver Session as returned by the driver constructor
+     * @return Path of the browser binary, or empty for remote and unknown browsers
+     */
+    public static Optional<String> browserCommand(WebDriver driver) {
+        long pid = findBrowserPid(driver);
+        return pid > 0 ? ProcessHandle.of(pid).flatMap(browser -> browser.info().command()) : Optional.empty();
+    }
+
+    /**
+     * Resident memory of a session's browser, including its renderer and helper processes
+     * @param driver Registered session
+     * @return Sum of the resident set sizes in MB, or -1 when unknown
+     */
+    public static long residentMemoryMb(WebDriver driver) {
+        Long pid = browserPids.get(driver);
+        if (pid == null || !Files.isDirectory(PROC)) {
+            return -1;
+        }
+        Optional<ProcessHandle> browser = ProcessHandle.of(pid);
+        if (browser.isEmpty()) {
+            return -1;
+        }
+        long kb = residentKb(pid);
+        if (kb < 0) {
+            return -1;
+        }
+        for (ProcessHandle child : browser.get().descendants().collect(Collectors.toList())) {
+            kb += Math.max(0, residentKb(child.pid()));
+        }
+        return kb / 1024;
+    }
+
+    /**
+     * Kill the browser of a session whose quit failed, so it does not outlive the run
+     * @param driver Registered session
+     */
+    public static void kill(WebDriver driver) {
+        Long pid = browserPids.remove(driver);
+        if (pid != null) {
+            ProcessHandle.of(pid).ifPresent(browser -> {
+                LoggerUtil.logWarning(logger, "Killing browser process {} left behind by a failed quit", pid);
+                killTree(browser);
+            });
+        }
+    }
+
+    /**
+     * Kill driver and browser processes left behind by earlier or aborted runs, once per JVM,
+     * and kill those of this JVM that are still running when it exits
+     */
+    public static synchronized void reapOrphans() {
+        if (reaped) {
+            return;
+        }
+        reaped = true;
+        Runtime.getRuntime().addShutdownHook(new Thread(BrowserProcesses::killOwnProcesses, "browser-reaper"));
+
+        long start = System.nanoTime();
+        ProcessHandle self = ProcessHandle.current();
+        Set<Long> own = self.descendants().map(ProcessHandle::pid).collect(Collectors.toSet());
+        boolean killUnmarkedDrivers = ConfigReader.isReaperKillUnmarkedDrivers();
+        List<ProcessHandle> orphans = new ArrayList<>();
+        ProcessHandle.allProcesses()
+                .filter(process -> process.pid() != self.pid() && !own.contains(process.pid()))
+                .filter(process -> isOrphan(process, killUnmarkedDrivers))
+                .forEach(orphans::add);
+        for (ProcessHandle orphan : orphans) {
+            LoggerUtil.logWarning(logger, "Killing orphaned process {} ({})", orphan.pid(),
+                    orphan.info().command().orElse("unknown"));
+            killTree(orphan);
+        }
+        logger.info("Reaped {} orphaned browser or driver process(es) in {} ms",
+                orphans.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static boolean isOrphan(ProcessHandle process, boolean killUnmarkedDrivers) {
+        String owner = readOwner(process.pid());
+        if (owner != null) {
+            return !isAlive(owner);
+        }
+        if (!killUnmarkedDrivers) {
+            return false;
+        }
+        // Unmarked driver binaries from runs before the marker existed, reparented to init
+        String command = process.info().command().map(c -> Paths.get(c).getFileName().toString()).orElse("");
+        return DRIVER_BINARIES.contains(command)
+                && process.parent().map(parent -> parent.pid() == 1).orElse(false);
+    }
+
+    private static boolean isAlive(String owner) {
+        String[] parts = owner.split("@");
+        try {
+            Optional<ProcessHandle> process = ProcessHandle.of(Long.parseLong(parts[0]));
+            // A reused pid belongs to a process with a different start time
+            return process.isPresent() && owner.equals(owner(process.get()));
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static void killOwnProcesses() {
+        String self = owner(ProcessHandle.current());
+        ProcessHandle.current().descendants()
+                .filter(process -> self.equals(readOwner(process.pid())))
+                .forEach(ProcessHandle::destroyForcibly);
+    }
+
+    private static void killTree(ProcessHandle process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    private static long findBrowserPid(WebDriver driver) {
+        if (!(driver instanceof HasCapabilities)) {
+            return -1;
+        }
+        Capabilities capabilities = ((HasCapabilities) driver).getCapabilities();
+        // Local browsers are started by the driver service, a child of this JVM
+        List<ProcessHandle> own = ProcessHandle.current().descendants().collect(Collectors.toList());
+        Object firefoxPid = capabilities.getCapability("moz:processID");
+        if (firefoxPid instanceof Number) {
+            long pid = ((Number) firefoxPid).longValue();
+            return own.stream().anyMatch(process -> process.pid() == pid) ? pid : -1;
+        }
+        String port = debuggerPort(capabilities.getCapability("goog:chromeOptions"));
+        if (port == null) {
+            port = debuggerPort(capabilities.getCapability("ms:edgeOptions"));
+        }
+        if (port == null) {
+            return -1;
+        }
+        String flag = "--remote-debugging-port=" + port;
+        return own.stream()
+                .filter(process -> process.info().arguments()
+                        .map(arguments -> List.of(arguments).contains(flag)).orElse(false))
+                .mapToLong(ProcessHandle::pid)
+                .findFirst().orElse(-1);
+    }
+
+    private static String debuggerPort(Object options) {
+        if (!(options instanceof Map)) {
+            return null;
+        }
+        Object address = ((Map<?, ?>) options).get("debuggerAddress");
+        if (address == null || address.toString().lastIndexOf(':') < 0) {
+            return null;
+        }
+        return address.toString().substring(address.toString().lastIndexOf(':') + 1);
+    }
+
+    private static String owner(ProcessHandle process) {
+        return process.pid() + "@" + process.info().startInstant().map(Instant::toEpochMilli).orElse(0L);
+    }
+
+    private static String readOwner(long pid) {
+        try {
+            String environment = new String(Files.readAllBytes(PROC.resolve(pid + "/environ")), StandardCharsets.UTF_8);
+            for (String variable : environment.split("\0")) {
+                if (variable.startsWith(OWNER_VARIABLE + "=")) {
+                    return variable.substring(OWNER_VARIABLE.length() + 1);
+                }
+            }
+        } catch (IOException | SecurityException e) {
+            // Not Linux, already gone, or owned by another user
+        }
+        return null;
+    }
+
+    private static long residentKb(long pid) {
+        try {
+            for (String line : Files.readAllLines(PROC.resolve(pid + "/status"), StandardCharsets.UTF_8)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // The process exited while it was being measured
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,84 @@
+package core;
+
+import org.openqa.selenium.json.Json;
+import utils.LatencyHistogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WebDriver command latencies recorded for one scenario, grouped by command and by locator.
+ * A recording is bound to the thread running the scenario between start() and stop().
+ */
+public class CommandMetrics {
+    private static final ThreadLocal<CommandMetrics> active = new ThreadLocal<>();
+
+    private final Map<String, LatencyHistogram> byCommand = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> byLocator = new ConcurrentHashMap<>();
+
+    /**
+     * Start recording commands issued by the current thread
+     * @return The new recording
+     */
+    public static CommandMetrics start() {
+        CommandMetrics metrics = new CommandMetrics();
+        active.set(metrics);
+        return metrics;
+    }
+
+    /**
+     * Stop recording on the current thread
+     * @return The finished recording, or null if none was started
+     */
+    public static CommandMetrics stop() {
+        CommandMetrics metrics = active.get();
+        active.remove();
+        return metrics;
+    }
+
+    /**
+     * Get the recording of the current thread
+     * @return Active recording, or null when commands are not being recorded
+     */
+    public static CommandMetrics current() {
+        return active.get();
+    }
+
+    void record(String command, String locator, long nanos) {
+        byCommand.computeIfAbsent(command, key -> new LatencyHistogram()).record(nanos);
+        if (locator != null) {
+            byLocator.computeIfAbsent(locator, key -> new LatencyHistogram()).record(nanos);
+        }
+    }
+
+    public long getCommandCount() {
+        return byCommand.values().stream().mapToLong(LatencyHistogram::getCount).sum();
+    }
+
+    public long getTotalMicros() {
+        return byCommand.values().stream().mapToLong(LatencyHistogram::getTotalMicros).sum();
+    }
+
+    /**
+     * Export the recording with p50/p95/p99 per command and per locator
+     * @param scenarioName Scenario the recording belongs to
+     * @return JSON document
+     */
+    public String toJson(String scenarioName) {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("scenario", scenarioName);
+        document.put("commandCount", getCommandCount());
+        document.put("totalMicros", getTotalMicros());
+        document.put("commands", summarise(byCommand));
+        document.put("locators", summarise(byLocator));
+        return new Json().toJson(document);
+    }
+
+    private static Map<String, Object> summarise(Map<String, LatencyHistogram> histograms) {
+        Map<String, Object> summaries = new TreeMap<>();
+        histograms.forEach((key, histogram) -> summaries.put(key, histogram.toSummary()));
+        return summaries;
+    }
+}
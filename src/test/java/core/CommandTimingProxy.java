@@ -0,0 +1,184 @@
+package core;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every call made through a WebDriver and the elements, navigation, options and
+ * target locators obtained from it, and records it into the thread's active CommandMetrics
+ * and StepTimer.
+ * Uses JDK dynamic proxies, whose classes are generated once per interface set, so wrapping
+ * the element returned by every findElement stays in the sub-microsecond range.
+ */
+public class CommandTimingProxy implements InvocationHandler {
+    private static final Map<Class<?>, Class<?>[]> interfaceCache = new ConcurrentHashMap<>();
+
+    private final Object target;
+    private final WebDriver rootTarget;
+    private WebDriver rootProxy;
+
+    private CommandTimingProxy(Object target, WebDriver rootTarget, WebDriver rootProxy) {
+        this.target = target;
+        this.rootTarget = rootTarget;
+        this.rootProxy = rootProxy;
+    }
+
+    /**
+     * Wrap a driver so its commands are timed
+     * @param driver Driver to instrument
+     * @return Proxy implementing every interface of the driver
+     */
+    public static WebDriver decorate(WebDriver driver) {
+        CommandTimingProxy handler = new CommandTimingProxy(driver, driver, null);
+        handler.rootProxy = (WebDriver) Proxy.newProxyInstance(CommandTimingProxy.class.getClassLoader(),
+                interfacesOf(driver.getClass(), false), handler);
+        return handler.rootProxy;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return invokeObjectMethod(method, args);
+        }
+        if (method.getDeclaringClass() == WrapsElement.class) {
+            return target;
+        }
+
+        CommandMetrics metrics = CommandMetrics.current();
+        boolean timed = StepTimer.isActive();
+        String command = metrics != null || timed ? commandName(method) : null;
+        if (timed) {
+            StepTimer.begin(StepTimer.Kind.COMMAND, command);
+        }
+        long start = System.nanoTime();
+        try {
+            return wrap(method.invoke(target, unwrap(args)));
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            if (timed) {
+                StepTimer.end();
+            }
+            if (metrics != null) {
+                String locator = args != null && args.length > 0 && args[0] instanceof By ? command + " " + args[0] : null;
+                metrics.record(command, locator, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private Object invokeObjectMethod(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return target.equals(unwrapValue(args[0]));
+            case "hashCode":
+                return target.hashCode();
+            default:
+                return target.toString();
+        }
+    }
+
+    private String commandName(Method method) {
+        if (target instanceof WebDriver) {
+            return method.getName();
+        }
+        if (target instanceof WebElement) {
+            return "element." + method.getName();
+        }
+        String owner = method.getDeclaringClass().getSimpleName();
+        return owner.substring(0, 1).toLowerCase() + owner.substring(1) + "." + method.getName();
+    }
+
+    private Object wrap(Object result) {
+        if (result == null) {
+            return null;
+        }
+        if (result == rootTarget) {
+            return rootProxy;
+        }
+        if (result instanceof WebElement) {
+            return proxy(result, true);
+        }
+        if (result instanceof List && !((List<?>) result).isEmpty() && ((List<?>) result).get(0) instanceof WebElement) {
+            List<Object> elements = new ArrayList<>(((List<?>) result).size());
+            for (Object element : (List<?>) result) {
+                elements.add(proxy(element, true));
+            }
+            return elements;
+        }
+        if (result instanceof WebDriver.Navigation || result instanceof WebDriver.Options || result instanceof WebDriver.TargetLocator
+                || result instanceof WebDriver.Timeouts || result instanceof WebDriver.Window || result instanceof Alert) {
+            return proxy(result, false);
+        }
+        return result;
+    }
+
+    private Object proxy(Object value, boolean element) {
+        return Proxy.newProxyInstance(CommandTimingProxy.class.getClassLoader(), interfacesOf(value.getClass(), element),
+                new CommandTimingProxy(value, rootTarget, rootProxy));
+    }
+
+    private static Object[] unwrap(Object[] args) {
+        if (args == null) {
+            return null;
+        }
+        Object[] raw = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            raw[i] = unwrapValue(args[i]);
+        }
+        return raw;
+    }
+
+    private static Object unwrapValue(Object value) {
+        if (value != null && Proxy.isProxyClass(value.getClass())
+                && Proxy.getInvocationHandler(value) instanceof CommandTimingProxy) {
+            return ((CommandTimingProxy) Proxy.getInvocationHandler(value)).target;
+        }
+        if (value instanceof Object[] && value.getClass().getComponentType().isAssignableFrom(WebElement.class)) {
+            // Script arguments arrive as varargs and may contain wrapped elements
+            Object[] values = (Object[]) value;
+            Object[] raw = (Object[]) Array.newInstance(value.getClass().getComponentType(), values.length);
+            for (int i = 0; i < values.length; i++) {
+                raw[i] = unwrapValue(values[i]);
+            }
+            return raw;
+        }
+        return value;
+    }
+
+    private static Class<?>[] interfacesOf(Class<?> type, boolean element) {
+        return interfaceCache.computeIfAbsent(type, key -> {
+            Set<Class<?>> interfaces = new LinkedHashSet<>();
+            for (Class<?> current = key; current != null; current = current.getSuperclass()) {
+                collectInterfaces(current, interfaces);
+            }
+            if (element) {
+                interfaces.add(WrapsElement.class);
+            }
+            return interfaces.toArray(new Class<?>[0]);
+        });
+    }
+
+    private static void collectInterfaces(Class<?> type, Set<Class<?>> interfaces) {
+        for (Class<?> candidate : type.getInterfaces()) {
+            if (Modifier.isPublic(candidate.getModifiers()) && interfaces.add(candidate)) {
+                collectInterfaces(candidate, interfaces);
+            }
+        }
+    }
+}
@@ -2,10 +2,13 @@ package core;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
 import java.util.Properties;
 
 public class ConfigReader {
     private static final Properties prop = new Properties();
+    private static final List<String> SITE_MODES = List.of("live", "record", "replay");
 
     static {
         try (FileInputStream fis = new FileInputStream("src/test/resources/config/config.properties")) {
@@ -16,11 +19,28 @@ public class ConfigReader {
     }
 
     public static String getBaseUrl() {
-        return prop.getProperty("baseUrl");
+        String baseUrl = prop.getProperty("baseUrl");
+        return "live".equals(getSiteMode()) ? baseUrl : SiteReplayServer.localUrl(baseUrl);
+    }
+
+    public static String getSiteMode() {
+        String mode = System.getProperty("site.mode", prop.getProperty("site.mode", "live")).trim().toLowerCase();
+        if (!SITE_MODES.contains(mode)) {
+            throw new IllegalArgumentException("site.mode must be one of " + SITE_MODES + " but was '" + mode + "'");
+        }
+        return mode;
+    }
+
+    public static String getSiteRecordingsDir() {
+        return prop.getProperty("site.recordingsDir", "src/test/resources/recordings");
+    }
+
+    public static int getSitePort() {
+        return Integer.parseInt(prop.getProperty("site.port", "0"));
     }
 
     public static String getBrowser() {
-        return prop.getProperty("browser", "chrome");
+        return System.getProperty("browser", prop.getProperty("browser", "chrome"));
     }
 
     public static int getExplicitWait() {
@@ -31,10 +51,38 @@ public class ConfigReader {
         return Integer.parseInt(prop.getProperty("implicitWait", "5"));
     }
 
+    public static long getProbePollInterval() {
+        return Long.parseLong(prop.getProperty("probePollInterval", "100"));
+    }
+
+    public static boolean isObserverWaits() {
+        return !"polling".equalsIgnoreCase(prop.getProperty("wait.strategy", "observer").trim());
+    }
+
+    public static long getWaitPollMin() {
+        return Long.parseLong(prop.getProperty("wait.pollMin", "20"));
+    }
+
+    public static long getWaitPollMax() {
+        return Long.parseLong(prop.getProperty("wait.pollMax", "500"));
+    }
+
     public static int getPageLoadTimeout() {
         return Integer.parseInt(prop.getProperty("pageLoadTimeout", "30"));
     }
 
+    public static String getPageLoadStrategy() {
+        return prop.getProperty("pageLoadStrategy", "normal").trim().toLowerCase();
+    }
+
+    public static boolean isPageReadyEnabled() {
+        return Boolean.parseBoolean(prop.getProperty("pageReady.enabled", "true"));
+    }
+
+    public static long getPageReadyQuietWindow() {
+        return Long.parseLong(prop.getProperty("pageReady.quietWindow", "200"));
+    }
+
     public static int getScriptTimeout() {
         return Integer.parseInt(prop.getProperty("scriptTimeout", "30"));
     }
@@ -59,6 +107,219 @@ public class ConfigReader {
         return Boolean.parseBoolean(prop.getProperty("headlessMode", "false"));
     }
 
+    public static int getPoolMaxSize() {
+        return Integer.parseInt(System.getProperty("pool.maxSize", prop.getProperty("pool.maxSize", "1")));
+    }
+
+    public static int getPoolInitialSize() {
+        return Integer.parseInt(System.getProperty("pool.initialSize", prop.getProperty("pool.initialSize", "1")));
+    }
+
+    public static String getPoolPrewarm() {
+        return System.getProperty("pool.prewarm", prop.getProperty("pool.prewarm", "none")).trim();
+    }
+
+    public static int getPoolLeaseTimeout() {
+        return Integer.parseInt(prop.getProperty("pool.leaseTimeout", "60"));
+    }
+
+    public static boolean isPoolHealthCheck() {
+        return Boolean.parseBoolean(prop.getProperty("pool.healthCheck", "true"));
+    }
+
+    public static int getRecycleMaxScenarios() {
+        return Integer.parseInt(System.getProperty("recycle.maxScenarios", prop.getProperty("recycle.maxScenarios", "0")));
+    }
+
+    public static long getRecycleMaxAgeMinutes() {
+        return Long.parseLong(System.getProperty("recycle.maxAgeMinutes", prop.getProperty("recycle.maxAgeMinutes", "0")));
+    }
+
+    public static long getRecycleMaxRssMb() {
+        return Long.parseLong(System.getProperty("recycle.maxRssMb", prop.getProperty("recycle.maxRssMb", "0")));
+    }
+
+    public static boolean isReaperEnabled() {
+        return Boolean.parseBoolean(System.getProperty("reaper.enabled", prop.getProperty("reaper.enabled", "true")));
+    }
+
+    public static boolean isReaperKillUnmarkedDrivers() {
+        return Boolean.parseBoolean(System.getProperty("reaper.killUnmarkedDrivers",
+                prop.getProperty("reaper.killUnmarkedDrivers", "false")));
+    }
+
+    public static String getBrowserVersion() {
+        return prop.getProperty("browserVersion", "").trim();
+    }
+
+    public static boolean isDriverCacheEnabled() {
+        return Boolean.parseBoolean(prop.getProperty("driverCache.enabled", "true"));
+    }
+
+    public static boolean isDriverCacheOffline() {
+        return Boolean.parseBoolean(prop.getProperty("driverCache.offline", "false"));
+    }
+
+    public static String getDriverCacheFile() {
+        String file = prop.getProperty("driverCache.file", "").trim();
+        if (file.isEmpty()) {
+            return Paths.get(System.getProperty("user.home"), ".cache", "web-automation-framework", "driver-resolution.properties").toString();
+        }
+        return file;
+    }
+
+    public static String getResetStrategy() {
+        return prop.getProperty("reset.strategy", "auto");
+    }
+
+    public static boolean isCommandMetricsEnabled() {
+        return Boolean.parseBoolean(System.getProperty("commandMetrics.enabled", prop.getProperty("commandMetrics.enabled", "false")));
+    }
+
+    public static String getCommandMetricsDir() {
+        return prop.getProperty("commandMetrics.outputDir", "target/command-metrics");
+    }
+
+    public static boolean isProfilerEnabled() {
+        return Boolean.parseBoolean(System.getProperty("profiler.enabled", prop.getProperty("profiler.enabled", "false")));
+    }
+
+    public static int getProfilerTopSteps() {
+        return Integer.parseInt(prop.getProperty("profiler.topSteps", "20"));
+    }
+
+    public static String getScreenshotMode() {
+        return prop.getProperty("screenshot.mode", "failure").trim().toLowerCase();
+    }
+
+    public static String getScreenshotDir() {
+        return prop.getProperty("screenshot.dir", "target/screenshots");
+    }
+
+    public static String getScreenshotFormat() {
+        return prop.getProperty("screenshot.format", "png").trim().toLowerCase();
+    }
+
+    public static int getScreenshotMaxWidth() {
+        return Integer.parseInt(prop.getProperty("screenshot.maxWidth", "0"));
+    }
+
+    public static int getScreenshotThreads() {
+        return Integer.parseInt(prop.getProperty("screenshot.threads", "2"));
+    }
+
+    public static int getScreenshotQueueSize() {
+        return Integer.parseInt(prop.getProperty("screenshot.queueSize", "32"));
+    }
+
+    public static String getVisualBaselineDir() {
+        return prop.getProperty("visual.baselineDir", "src/test/resources/visual-baselines");
+    }
+
+    public static String getVisualDiffDir() {
+        return prop.getProperty("visual.diffDir", "target/visual-diffs");
+    }
+
+    public static int getVisualTileSize() {
+        return Integer.parseInt(prop.getProperty("visual.tileSize", "64"));
+    }
+
+    public static int getVisualPixelThreshold() {
+        return Integer.parseInt(prop.getProperty("visual.pixelThreshold", "16"));
+    }
+
+    public static double getVisualTolerance() {
+        return Double.parseDouble(prop.getProperty("visual.tolerance", "0.5"));
+    }
+
+    public static boolean isVisualUpdate() {
+        return Boolean.parseBoolean(System.getProperty("visual.update", prop.getProperty("visual.update", "false")));
+    }
+
+    public static String getVisualIgnoreRegions(String name) {
+        return prop.getProperty("visual.ignore." + name, "");
+    }
+
+    public static String getNetworkProfile() {
+        return prop.getProperty("network.profile", "none");
+    }
+
+    public static String getNetworkBlockedResourceTypes() {
+        return prop.getProperty("network.blockedResourceTypes", "");
+    }
+
+    public static String getNetworkBlockedUrlPatterns() {
+        return prop.getProperty("network.blockedUrlPatterns", "");
+    }
+
+    public static String getRemoteUrl() {
+        return System.getProperty("remote.url", prop.getProperty("remote.url", "http://localhost:4444"));
+    }
+
+    public static String getRemoteBrowser() {
+        return System.getProperty("remote.browser", prop.getProperty("remote.browser", "chrome"));
+    }
+
+    public static int getRemoteMaxSessions() {
+        return Integer.parseInt(prop.getProperty("remote.maxSessions", "0"));
+    }
+
+    public static int getRemoteConnectTimeout() {
+        return Integer.parseInt(prop.getProperty("remote.connectTimeout", "10"));
+    }
+
+    public static int getRemoteReadTimeout() {
+        return Integer.parseInt(prop.getProperty("remote.readTimeout", "180"));
+    }
+
+    public static boolean isRemoteRetries() {
+        return Boolean.parseBoolean(prop.getProperty("remote.retries", "false"));
+    }
+
+    public static boolean isRemoteSharedClient() {
+        return Boolean.parseBoolean(System.getProperty("remote.sharedClient", prop.getProperty("remote.sharedClient", "true")));
+    }
+
+    public static int getRemoteConnectionPoolSize() {
+        return Integer.parseInt(prop.getProperty("remote.connectionPoolSize", "0"));
+    }
+
+    public static int getRemoteKeepAlive() {
+        return Integer.parseInt(prop.getProperty("remote.keepAlive", "300"));
+    }
+
+    public static boolean isSessionCacheEnabled() {
+        return Boolean.parseBoolean(prop.getProperty("sessionCache.enabled", "true"));
+    }
+
+    public static int getSessionCacheTtl() {
+        return Integer.parseInt(prop.getProperty("sessionCache.ttl", "900"));
+    }
+
+    public static int getRetryMaxAttempts() {
+        return Integer.parseInt(System.getProperty("retry.maxAttempts", prop.getProperty("retry.maxAttempts", "1")));
+    }
+
+    public static int getShardIndex() {
+        return Integer.parseInt(System.getProperty("shard.index", prop.getProperty("shard.index", "0")));
+    }
+
+    public static int getShardCount() {
+        return Integer.parseInt(System.getProperty("shard.count", prop.getProperty("shard.count", "1")));
+    }
+
+    public static String getDataDir() {
+        return prop.getProperty("data.dir", "src/test/resources/data");
+    }
+
+    public static int getDataPartitions() {
+        return Integer.parseInt(System.getProperty("data.partitions", prop.getProperty("data.partitions", "1")));
+    }
+
+    public static String getShardHistoryFile() {
+        return System.getProperty("shard.history", prop.getProperty("shard.history", "target/shard-history.json"));
+    }
+
     public static String getProperty(String key) {
         return prop.getProperty(key);
     }
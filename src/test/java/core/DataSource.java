@@ -0,0 +1,193 @@
+package core;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams rows of a CSV or NDJSON dataset under data.dir through a memory-mapped file.
+ * The rows after the CSV header are split into byte ranges of equal size, and a row belongs to the
+ * range its first byte falls into, so slices are disjoint, together cover every row, and depend only
+ * on the file. A slice is read one row at a time; only the current row is decoded.
+ * Rows are single lines; CSV fields may be quoted but must not contain line breaks.
+ */
+public class DataSource {
+    private static final Json JSON = new Json();
+
+    private final Path file;
+    private final boolean csv;
+
+    private DataSource(Path file) {
+        this.file = file;
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".csv")) {
+            this.csv = true;
+        } else if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            this.csv = false;
+        } else {
+            throw new IllegalArgumentException("Unsupported dataset format, expected .csv, .ndjson or .jsonl: " + file);
+        }
+    }
+
+    /**
+     * Open a dataset
+     * @param name File name relative to data.dir
+     * @return The dataset; nothing is read until a slice is iterated
+     */
+    public static DataSource open(String name) {
+        Path file = Paths.get(ConfigReader.getDataDir()).resolve(name);
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Dataset not found: " + file.toAbsolutePath());
+        }
+        return new DataSource(file);
+    }
+
+    /**
+     * Stream the rows of one slice
+     * @param slice Index of the slice, from 0 to slices - 1
+     * @param slices Number of slices the dataset is split into
+     * @return Rows of the slice in file order, as column name to value
+     */
+    public Iterator<Map<String, String>> rows(int slice, int slices) {
+        if (slices < 1 || slice < 0 || slice >= slices) {
+            throw new IllegalArgumentException("Slice " + slice + " of " + slices + " does not exist");
+        }
+        MappedByteBuffer buffer = map();
+        List<String> header = new ArrayList<>();
+        int dataStart = 0;
+        if (csv) {
+            int end = lineEnd(buffer, 0);
+            header = parseCsv(decode(buffer, 0, end));
+            dataStart = Math.min(buffer.limit(), end + 1);
+        }
+        long size = buffer.limit() - dataStart;
+        int start = dataStart + (int) (size * slice / slices);
+        int end = dataStart + (int) (size * (slice + 1) / slices);
+        if (start > dataStart && buffer.get(start - 1) != '\n') {
+            // The row in progress belongs to the previous slice
+            start = Math.min(buffer.limit(), lineEnd(buffer, start) + 1);
+        }
+        return new SliceIterator(buffer, header, start, end);
+    }
+
+    private MappedByteBuffer map() {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Datasets larger than 2 GB are not supported: " + file);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read dataset " + file, e);
+        }
+    }
+
+    private Map<String, String> parse(String line, List<String> header) {
+        Map<String, String> row = new LinkedHashMap<>();
+        if (csv) {
+            List<String> values = parseCsv(line);
+            for (int i = 0; i < header.size(); i++) {
+                row.put(header.get(i), i < values.size() ? values.get(i) : "");
+            }
+        } else {
+            Map<String, Object> values = JSON.toType(line, Json.MAP_TYPE);
+            values.forEach((key, value) -> row.put(key, value == null ? "" : String.valueOf(value)));
+        }
+        return row;
+    }
+
+    private static List<String> parseCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static int lineEnd(MappedByteBuffer buffer, int from) {
+        int position = from;
+        while (position < buffer.limit() && buffer.get(position) != '\n') {
+            position++;
+        }
+        return position;
+    }
+
+    private static String decode(MappedByteBuffer buffer, int from, int to) {
+        int end = to > from && buffer.get(to - 1) == '\r' ? to - 1 : to;
+        byte[] bytes = new byte[end - from];
+        buffer.get(from, bytes);
+        String line = new String(bytes, StandardCharsets.UTF_8);
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+
+    private class SliceIterator implements Iterator<Map<String, String>> {
+        private final MappedByteBuffer buffer;
+        private final List<String> header;
+        private final int end;
+        private int position;
+        private Map<String, String> next;
+
+        private SliceIterator(MappedByteBuffer buffer, List<String> header, int start, int end) {
+            this.buffer = buffer;
+            this.header = header;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && position < end && position < buffer.limit()) {
+                int lineEnd = lineEnd(buffer, position);
+                String line = decode(buffer, position, lineEnd);
+                position = lineEnd + 1;
+                if (!line.isBlank()) {
+                    next = parse(line, header);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Map<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map<String, String> row = next;
+            next = null;
+            return row;
+        }
+    }
+}
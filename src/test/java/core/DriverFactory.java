@@ -1,63 +1,137 @@
 package core;
 
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.SessionNotCreatedException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.safari.SafariDriver;
+import org.openqa.selenium.safari.SafariOptions;
 import org.openqa.selenium.Dimension;
 import io.github.bonigarcia.wdm.WebDriverManager;
 import org.slf4j.Logger;
 import utils.LoggerUtil;
 
 import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class DriverFactory {
     private static final Logger logger = LoggerUtil.getLogger(DriverFactory.class);
     private static final ThreadLocal<WebDriver> tlDriver = new ThreadLocal<>();
+    private static DriverPool pool;
+    private static Function<String, WebDriver> browserLauncher = DriverFactory::createDriver;
 
+    /**
+     * Get the session of the current thread, leasing and resetting one on first use,
+     * so scenarios that never touch the browser never start one
+     * @return Session owned by the current thread until releaseDriver()
+     */
     public static WebDriver getDriver() {
+        WebDriver driver = tlDriver.get();
+        if (driver == null) {
+            initDriver();
+            driver = tlDriver.get();
+        }
+        return driver;
+    }
+
+    /**
+     * Get the session of the current thread without leasing one
+     * @return The leased session, or null when the current scenario has not used the browser
+     */
+    public static WebDriver getLeasedDriver() {
         return tlDriver.get();
     }
 
-    public static void initDriver() {
-        if (tlDriver.get() == null) {
-            String browser = ConfigReader.getBrowser().toLowerCase();
-            LoggerUtil.logConfig(logger, "Browser", browser);
+    public static synchronized DriverPool getPool() {
+        if (pool == null) {
+            LoggerUtil.logConfig(logger, "Browser", ConfigReader.getBrowser().toLowerCase());
             LoggerUtil.logConfig(logger, "Headless Mode", String.valueOf(ConfigReader.isHeadlessMode()));
             LoggerUtil.logConfig(logger, "Window Size", ConfigReader.getWindowSize());
-            
-            WebDriver driver = createDriver(browser);
-            configureDriver(driver);
-            tlDriver.set(driver);
-            logger.info("WebDriver initialized successfully for browser: {}", browser);
+            LoggerUtil.logConfig(logger, "Driver Pool Size", String.valueOf(ConfigReader.getPoolMaxSize()));
+
+            if (ConfigReader.isReaperEnabled()) {
+                BrowserProcesses.reapOrphans();
+            }
+            pool = new DriverPool(DriverFactory::startDriver, ConfigReader.getPoolMaxSize(),
+                    Duration.ofSeconds(ConfigReader.getPoolLeaseTimeout()), ConfigReader.isPoolHealthCheck(),
+                    RecyclePolicy.fromConfig());
+        }
+        return pool;
+    }
+
+    /**
+     * Start pool.initialSize sessions on background threads when pool.prewarm is background.
+     * Returns immediately; calling it again does not start more sessions.
+     */
+    public static void prewarmPool() {
+        if ("background".equalsIgnoreCase(ConfigReader.getPoolPrewarm())) {
+            getPool().prewarmAsync(ConfigReader.getPoolInitialSize());
+        }
+    }
+
+    /**
+     * Lease a session for the current thread and reset its state for a new scenario
+     */
+    public static void initDriver() {
+        if (tlDriver.get() == null) {
+            leaseDriver();
+            tlDriver.set(StateResetEngine.reset(tlDriver.get()));
+        }
+    }
+
+    private static void leaseDriver() {
+        tlDriver.set(getPool().lease());
+        logger.debug("WebDriver session leased from pool");
+    }
+
+    public static void releaseDriver() {
+        WebDriver driver = tlDriver.get();
+        if (driver != null) {
+            getPool().release(driver);
+            tlDriver.remove();
+            logger.debug("WebDriver session returned to pool");
         }
     }
 
+    private static WebDriver startDriver() {
+        String browser = ConfigReader.getBrowser().toLowerCase();
+        WebDriver driver = browserLauncher.apply(browser);
+        configureDriver(driver);
+        if (!"remote".equals(browser)) {
+            BrowserProcesses.register(driver);
+        }
+        NetworkInterceptor.apply(driver);
+        PageReadiness.install(driver);
+        if (ConfigReader.isCommandMetricsEnabled() || ConfigReader.isProfilerEnabled()) {
+            driver = CommandTimingProxy.decorate(driver);
+        }
+        logger.info("WebDriver initialized successfully for browser: {}", browser);
+        return driver;
+    }
+
     private static WebDriver createDriver(String browser) {
         WebDriver driver;
         boolean headless = ConfigReader.isHeadlessMode();
 
         switch (browser) {
             case "firefox":
-                WebDriverManager.firefoxdriver().setup();
-                FirefoxOptions firefoxOptions = new FirefoxOptions();
-                if (headless) {
-                    firefoxOptions.addArguments("--headless");
-                }
-                driver = new FirefoxDriver(firefoxOptions);
+                driver = withDriverBinary("firefox", () -> new FirefoxDriver(new GeckoDriverService.Builder()
+                        .withEnvironment(BrowserProcesses.ownerEnvironment()).build(), firefoxOptions(headless)));
                 break;
 
             case "edge":
-                WebDriverManager.edgedriver().setup();
-                EdgeOptions edgeOptions = new EdgeOptions();
-                if (headless) {
-                    edgeOptions.addArguments("--headless");
-                }
-                driver = new EdgeDriver(edgeOptions);
+                driver = withDriverBinary("edge", () -> new EdgeDriver(new EdgeDriverService.Builder()
+                        .withEnvironment(BrowserProcesses.ownerEnvironment()).build(), edgeOptions(headless)));
                 break;
 
             case "safari":
@@ -65,25 +139,115 @@ public class DriverFactory {
                 if (headless) {
                     LoggerUtil.logWarning(logger, "Safari doesn't support headless mode. Running in normal mode.");
                 }
-                driver = new SafariDriver();
+                SafariOptions safariOptions = new SafariOptions();
+                safariOptions.setPageLoadStrategy(pageLoadStrategy());
+                driver = new SafariDriver(safariOptions);
+                break;
+
+            case "remote":
+                // The browser runs on remote.url; its options are built as for a local one
+                driver = RemoteSessionFactory.create(remoteOptions(ConfigReader.getRemoteBrowser().toLowerCase(), headless));
                 break;
 
             case "chrome":
             default:
-                WebDriverManager.chromedriver().setup();
-                ChromeOptions chromeOptions = new ChromeOptions();
-                if (headless) {
-                    chromeOptions.addArguments("--headless");
-                }
-                chromeOptions.addArguments("--no-sandbox");
-                chromeOptions.addArguments("--disable-dev-shm-usage");
-                driver = new ChromeDriver(chromeOptions);
+                driver = withDriverBinary("chrome", () -> new ChromeDriver(new ChromeDriverService.Builder()
+                        .withEnvironment(BrowserProcesses.ownerEnvironment()).build(), chromeOptions(headless)));
                 break;
         }
 
         return driver;
     }
 
+    private static Capabilities remoteOptions(String browser, boolean headless) {
+        switch (browser) {
+            case "firefox":
+                return firefoxOptions(headless);
+            case "edge":
+                return edgeOptions(headless);
+            case "safari":
+                SafariOptions safariOptions = new SafariOptions();
+                safariOptions.setPageLoadStrategy(pageLoadStrategy());
+                return safariOptions;
+            case "chrome":
+            default:
+                return chromeOptions(headless);
+        }
+    }
+
+    private static ChromeOptions chromeOptions(boolean headless) {
+        ChromeOptions chromeOptions = new ChromeOptions();
+        if (headless) {
+            chromeOptions.addArguments("--headless");
+        }
+        chromeOptions.addArguments("--no-sandbox");
+        chromeOptions.addArguments("--disable-dev-shm-usage");
+        chromeOptions.setPageLoadStrategy(pageLoadStrategy());
+        return chromeOptions;
+    }
+
+    private static FirefoxOptions firefoxOptions(boolean headless) {
+        FirefoxOptions firefoxOptions = new FirefoxOptions();
+        if (headless) {
+            firefoxOptions.addArguments("--headless");
+        }
+        firefoxOptions.setPageLoadStrategy(pageLoadStrategy());
+        NetworkInterceptor.configure(firefoxOptions);
+        return firefoxOptions;
+    }
+
+    private static EdgeOptions edgeOptions(boolean headless) {
+        EdgeOptions edgeOptions = new EdgeOptions();
+        if (headless) {
+            edgeOptions.addArguments("--headless");
+        }
+        edgeOptions.setPageLoadStrategy(pageLoadStrategy());
+        return edgeOptions;
+    }
+
+    private static PageLoadStrategy pageLoadStrategy() {
+        return PageLoadStrategy.fromString(ConfigReader.getPageLoadStrategy());
+    }
+
+    private static WebDriver withDriverBinary(String browser, Supplier<WebDriver> launcher) {
+        if (!ConfigReader.isDriverCacheEnabled()) {
+            setupDriverBinary(browser);
+            return launcher.get();
+        }
+        String driverPath = DriverResolutionCache.setup(browser);
+        WebDriver driver;
+        try {
+            driver = launcher.get();
+        } catch (SessionNotCreatedException e) {
+            if (ConfigReader.isDriverCacheOffline()) {
+                // Without network the entry cannot be resolved again, so keep it for the next run
+                throw e;
+            }
+            // Usually the browser updated itself past the cached driver
+            LoggerUtil.logWarning(logger, "Cached {} driver failed to start a session, resolving it again: {}",
+                    browser, e.getRawMessage());
+            DriverResolutionCache.evict(browser, driverPath);
+            DriverResolutionCache.setup(browser);
+            driver = launcher.get();
+        }
+        DriverResolutionCache.recordBrowser(browser, driver);
+        return driver;
+    }
+
+    private static void setupDriverBinary(String browser) {
+        switch (browser) {
+            case "firefox":
+                WebDriverManager.firefoxdriver().setup();
+                break;
+            case "edge":
+                WebDriverManager.edgedriver().setup();
+                break;
+            default:
+                WebDriverManager.chromedriver().setup();
+                break;
+        }
+    }
+
     private static void configureDriver(WebDriver driver) {
         // Set timeouts
         driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(ConfigReader.getImplicitWait()));
@@ -108,7 +272,7 @@ public class DriverFactory {
                         int height = Integer.parseInt(dimensions[1]);
                         driver.manage().window().setSize(new Dimension(width, height));
                     } catch (NumberFormatException e) {
-                        LoggerUtil.logWarning(logger, "Invalid window size format: " + windowSize + ". Using maximize instead.");
+                        LoggerUtil.logWarning(logger, "Invalid window size format: {}. Using maximize instead.", windowSize);
                         driver.manage().window().maximize();
                     }
                 } else {
@@ -121,8 +285,39 @@ public class DriverFactory {
     public static void quitDriver() {
         WebDriver driver = tlDriver.get();
         if (driver != null) {
-            driver.quit();
+            getPool().discard(driver);
             tlDriver.remove();
         }
     }
+
+    /**
+     * Replace the code that launches browsers, e.g. with an in-memory stub for benchmarks.
+     * Sessions started afterwards are still configured and instrumented like real ones.
+     * @param launcher Creates a WebDriver for the given browser name
+     */
+    public static synchronized void setBrowserLauncher(Function<String, WebDriver> launcher) {
+        shutdownPool();
+        browserLauncher = launcher;
+    }
+
+    /**
+     * Replace the session of the current thread with a newly started browser.
+     * Idle sessions are never handed out here, since other scenarios have used them.
+     * @return The new session
+     */
+    public static WebDriver restartDriver() {
+        quitDriver();
+        // The caller resets the new session; initDriver() would reset it again
+        tlDriver.set(getPool().leaseNew());
+        logger.debug("New WebDriver session leased from pool");
+        return tlDriver.get();
+    }
+
+    public static synchronized void shutdownPool() {
+        tlDriver.remove();
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,314 @@
+package core;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import utils.LoggerUtil;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of started WebDriver sessions.
+ * Scenarios lease a session, use it on their own thread and give it back when they finish,
+ * so browser startup is paid once per pooled session instead of once per scenario.
+ * Sessions the recycle policy retires on release are quit in the background and replaced by a fresh one.
+ */
+public class DriverPool {
+    private static final Logger logger = LoggerUtil.getLogger(DriverPool.class);
+
+    private final Supplier<WebDriver> driverSupplier;
+    private final int maxSize;
+    private final Duration leaseTimeout;
+    private final boolean healthCheck;
+    private final RecyclePolicy recyclePolicy;
+
+    private final Deque<WebDriver> idle = new ArrayDeque<>();
+    private final Map<WebDriver, SessionUsage> sessions = new ConcurrentHashMap<>();
+    private int size;
+    private boolean closed;
+
+    /**
+     * Create a new pool
+     * @param driverSupplier Starts a new, fully configured browser session
+     * @param maxSize Maximum number of sessions alive at the same time
+     * @param leaseTimeout How long lease() waits for a free session
+     * @param healthCheck Whether idle sessions are verified before they are handed out
+     */
+    public DriverPool(Supplier<WebDriver> driverSupplier, int maxSize, Duration leaseTimeout, boolean healthCheck) {
+        this(driverSupplier, maxSize, leaseTimeout, healthCheck, RecyclePolicy.NEVER);
+    }
+
+    /**
+     * Create a new pool that replaces sessions according to a recycle policy
+     * @param driverSupplier Starts a new, fully configured browser session
+     * @param maxSize Maximum number of sessions alive at the same time
+     * @param leaseTimeout How long lease() waits for a free session
+     * @param healthCheck Whether idle sessions are verified before they are handed out
+     * @param recyclePolicy Decides on release whether a session is replaced
+     */
+    public DriverPool(Supplier<WebDriver> driverSupplier, int maxSize, Duration leaseTimeout, boolean healthCheck,
+                      RecyclePolicy recyclePolicy) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Driver pool size must be at least 1 but was: " + maxSize);
+        }
+        this.driverSupplier = driverSupplier;
+        this.maxSize = maxSize;
+        this.leaseTimeout = leaseTimeout;
+        this.healthCheck = healthCheck;
+        this.recyclePolicy = recyclePolicy;
+    }
+
+    /**
+     * Start sessions up front so the first scenarios do not pay for browser startup
+     * @param count Number of sessions to start, capped at the pool size
+     */
+    public void prewarm(int count) {
+        prewarmAsync(count).join();
+    }
+
+    /**
+     * Start sessions up front without waiting for them. Sessions being started count towards
+     * the pool size, so lease() only launches another browser while the pool has room left;
+     * once every slot is taken by running or starting sessions, it waits for one to be released.
+     * @param count Number of sessions to start, capped at the pool size
+     * @return Completes when every session is started and idle in the pool
+     */
+    public CompletableFuture<Void> prewarmAsync(int count) {
+        int target = Math.min(count, maxSize);
+        List<CompletableFuture<Void>> starts = new ArrayList<>();
+        for (int i = 0; i < target; i++) {
+            synchronized (this) {
+                if (closed || size >= target) {
+                    break;
+                }
+                size++;
+            }
+            starts.add(CompletableFuture.runAsync(() -> release(createSession())));
+        }
+        long start = System.nanoTime();
+        return CompletableFuture.allOf(starts.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        LoggerUtil.logWarning(logger, "Driver pool prewarm failed, sessions start on first use: {}", error.getMessage());
+                    } else {
+                        logger.info("Driver pool prewarmed with {} session(s) in {} ms, max size {}",
+                                starts.size(), (System.nanoTime() - start) / 1_000_000, maxSize);
+                    }
+                });
+    }
+
+    /**
+     * Take a session out of the pool, starting a new one if the pool is not full yet
+     * @return A healthy WebDriver owned by the caller until release()
+     */
+    public WebDriver lease() {
+        long deadline = System.nanoTime() + leaseTimeout.toNanos();
+        while (true) {
+            WebDriver candidate;
+            synchronized (this) {
+                if (closed) {
+                    throw new IllegalStateException("Driver pool has been shut down");
+                }
+                candidate = idle.pollFirst();
+                if (candidate == null) {
+                    if (size < maxSize) {
+                        size++;
+                    } else {
+                        awaitRelease(deadline);
+                        continue;
+                    }
+                }
+            }
+            if (candidate == null) {
+                return markLeased(createSession());
+            }
+            if (!healthCheck || isHealthy(candidate)) {
+                return markLeased(candidate);
+            }
+            LoggerUtil.logWarning(logger, "Discarding unhealthy WebDriver session from pool");
+            discard(candidate);
+        }
+    }
+
+    /**
+     * Start a new session for the caller instead of handing out an idle one, for callers that
+     * need a browser no other scenario has used. When the pool is full, the least recently
+     * used idle session is quit to make room.
+     * @return A new WebDriver owned by the caller until release()
+     */
+    public WebDriver leaseNew() {
+        long deadline = System.nanoTime() + leaseTimeout.toNanos();
+        while (true) {
+            WebDriver replaced = null;
+            synchronized (this) {
+                if (closed) {
+                    throw new IllegalStateException("Driver pool has been shut down");
+                }
+                if (size < maxSize) {
+                    size++;
+                } else {
+                    replaced = idle.pollLast();
+                    if (replaced == null) {
+                        awaitRelease(deadline);
+                        continue;
+                    }
+                }
+            }
+            if (replaced != null) {
+                // The new session takes over the slot of the idle one
+                quietlyQuit(replaced);
+            }
+            return markLeased(createSession());
+        }
+    }
+
+    /**
+     * Return a leased session so other scenarios can use it
+     * @param driver Session previously obtained from lease()
+     */
+    public void release(WebDriver driver) {
+        SessionUsage usage = sessions.get(driver);
+        String reason = usage == null ? null : recyclePolicy.reasonToRecycle(driver, usage.leases,
+                Duration.ofNanos(System.nanoTime() - usage.startedNanos));
+        if (reason != null) {
+            recycle(driver, reason);
+            return;
+        }
+        synchronized (this) {
+            if (!closed) {
+                idle.addFirst(driver);
+                notifyAll();
+                return;
+            }
+        }
+        quietlyQuit(driver);
+    }
+
+    /**
+     * Quit a session and free its slot in the pool
+     * @param driver Session to remove
+     */
+    public void discard(WebDriver driver) {
+        if (!sessions.containsKey(driver)) {
+            return;
+        }
+        quietlyQuit(driver);
+        synchronized (this) {
+            idle.remove(driver);
+            size--;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Quit every session, idle or leased, and reject further leases
+     */
+    public void shutdown() {
+        synchronized (this) {
+            closed = true;
+            idle.clear();
+            notifyAll();
+        }
+        for (WebDriver driver : sessions.keySet()) {
+            quietlyQuit(driver);
+        }
+        logger.info("Driver pool shut down");
+    }
+
+    private WebDriver createSession() {
+        try {
+            WebDriver driver = driverSupplier.get();
+            sessions.put(driver, new SessionUsage(System.nanoTime()));
+            return driver;
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                size--;
+                notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    private WebDriver markLeased(WebDriver driver) {
+        SessionUsage usage = sessions.get(driver);
+        if (usage != null) {
+            usage.leases++;
+        }
+        return driver;
+    }
+
+    private void recycle(WebDriver driver, String reason) {
+        logger.info("Recycling WebDriver session after {}", reason);
+        boolean replace;
+        synchronized (this) {
+            size--;
+            replace = !closed && size < maxSize;
+            if (replace) {
+                size++;
+            }
+            notifyAll();
+        }
+        // The old browser quits while its replacement starts, both off the scenario thread
+        CompletableFuture.runAsync(() -> quietlyQuit(driver));
+        if (replace) {
+            CompletableFuture.runAsync(() -> release(createSession()))
+                    .exceptionally(error -> {
+                        LoggerUtil.logWarning(logger, "Failed to start replacement session, it starts on next lease: {}", error.getMessage());
+                        return null;
+                    });
+        }
+    }
+
+    private void awaitRelease(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            throw new IllegalStateException("Timed out after " + leaseTimeout.getSeconds()
+                    + "s waiting for a WebDriver session (pool size " + maxSize + ")");
+        }
+        try {
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a WebDriver session", e);
+        }
+    }
+
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private void quietlyQuit(WebDriver driver) {
+        sessions.remove(driver);
+        try {
+            driver.quit();
+            BrowserProcesses.forget(driver);
+        } catch (WebDriverException e) {
+            LoggerUtil.logWarning(logger, "Failed to quit WebDriver session: {}", e.getMessage());
+            BrowserProcesses.kill(driver);
+        }
+    }
+
+    private static class SessionUsage {
+        private final long startedNanos;
+        // Only changed by the thread that holds the session
+        private volatile int leases;
+
+        private SessionUsage(long startedNanos) {
+            this.startedNanos = startedNanos;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package core;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.slf4j.Logger;
+import utils.LoggerUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches WebDriverManager driver resolution per browser and browser version.
+ * Resolved driver paths are kept in memory for the JVM and persisted to a properties file,
+ * so later sessions and later JVMs skip version detection and never touch the network
+ * while the cached driver binary is still on disk.
+ * Without a configured browserVersion the entry belongs to the installed browser: its binary and
+ * modification time are stored with the entry once a session has started, and an entry whose browser
+ * binary has changed since, e.g. by an auto-update, is resolved again.
+ */
+public class DriverResolutionCache {
+    private static final Logger logger = LoggerUtil.getLogger(DriverResolutionCache.class);
+    private static final Map<String, String> resolved = new ConcurrentHashMap<>();
+    private static final Set<String> recorded = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Make the driver binary for a browser available to Selenium
+     * @param browser Browser name as configured (chrome, firefox, edge)
+     * @return Path of the driver binary
+     */
+    public static String setup(String browser) {
+        String key = cacheKey(browser);
+        String path = resolved.get(key);
+        if (path != null) {
+            exportDriverPath(browser, path);
+            return path;
+        }
+        synchronized (DriverResolutionCache.class) {
+            path = resolved.computeIfAbsent(key, k -> resolve(browser, k));
+        }
+        exportDriverPath(browser, path);
+        return path;
+    }
+
+    /**
+     * Drop a driver that failed to start a session, so the next setup() resolves it again
+     * @param browser Browser name as passed to setup()
+     * @param path Driver path returned by setup(); an entry already replaced by another thread is kept
+     */
+    public static synchronized void evict(String browser, String path) {
+        String key = cacheKey(browser);
+        resolved.remove(key, path);
+        recorded.remove(key);
+        Path cacheFile = Paths.get(ConfigReader.getDriverCacheFile());
+        Properties latest = load(cacheFile);
+        if (path.equals(latest.getProperty(key + ".path"))) {
+            clearEntry(latest, key);
+            store(cacheFile, latest);
+        }
+        logger.info("Evicted cached {} driver {}", browser, path);
+    }
+
+    /**
+     * Store the browser a cached driver was used with, once per JVM, so a later change of the
+     * installed browser is noticed without running version detection
+     * @param browser Browser name as passed to setup()
+     * @param driver Local session started with the cached driver
+     */
+    public static void recordBrowser(String browser, WebDriver driver) {
+        String key = cacheKey(browser);
+        if (!ConfigReader.getBrowserVersion().isEmpty() || !recorded.add(key)) {
+            return;
+        }
+        Optional<String> binary = BrowserProcesses.browserCommand(driver);
+        if (binary.isEmpty()) {
+            return;
+        }
+        String browserVersion = driver instanceof HasCapabilities
+                ? ((HasCapabilities) driver).getCapabilities().getBrowserVersion() : "";
+        synchronized (DriverResolutionCache.class) {
+            Path cacheFile = Paths.get(ConfigReader.getDriverCacheFile());
+            Properties latest = load(cacheFile);
+            if (latest.getProperty(key + ".path") == null) {
+                return;
+            }
+            latest.setProperty(key + ".browserVersion", String.valueOf(browserVersion));
+            latest.setProperty(key + ".browserBinary", binary.get());
+            latest.setProperty(key + ".browserModified", String.valueOf(lastModified(binary.get())));
+            store(cacheFile, latest);
+        }
+    }
+
+    private static String resolve(String browser, String key) {
+        Path cacheFile = Paths.get(ConfigReader.getDriverCacheFile());
+        Properties cache = load(cacheFile);
+        String cachedPath = cache.getProperty(key + ".path");
+        if (cachedPath != null && Files.isExecutable(Paths.get(cachedPath))) {
+            if (!browserChanged(cache, key)) {
+                logger.info("Using cached {} driver {} from {}", browser, cache.getProperty(key + ".driverVersion"), cachedPath);
+                return cachedPath;
+            }
+            if (ConfigReader.isDriverCacheOffline()) {
+                LoggerUtil.logWarning(logger, "Browser {} changed since its driver was cached, using {} anyway in offline mode",
+                        cache.getProperty(key + ".browserBinary"), cachedPath);
+                return cachedPath;
+            }
+            logger.info("Browser {} {} changed since its driver was cached, resolving it again",
+                    browser, cache.getProperty(key + ".browserVersion"));
+        }
+        if (ConfigReader.isDriverCacheOffline()) {
+            throw new IllegalStateException("Offline driver cache has no usable entry for '" + key + "' in " + cacheFile
+                    + ". Run once with driverCache.offline=false to fill it.");
+        }
+
+        WebDriverManager manager = managerFor(browser);
+        String browserVersion = ConfigReader.getBrowserVersion();
+        if (!browserVersion.isEmpty()) {
+            manager.browserVersion(browserVersion);
+        }
+        manager.setup();
+        String driverPath = manager.getDownloadedDriverPath();
+        logger.info("Resolved {} driver {} to {}", browser, manager.getDownloadedDriverVersion(), driverPath);
+
+        // Re-read before writing so entries stored by other JVMs in the meantime are kept
+        Properties latest = load(cacheFile);
+        clearEntry(latest, key);
+        latest.setProperty(key + ".path", driverPath);
+        latest.setProperty(key + ".driverVersion", String.valueOf(manager.getDownloadedDriverVersion()));
+        store(cacheFile, latest);
+        return driverPath;
+    }
+
+    private static String cacheKey(String browser) {
+        String browserVersion = ConfigReader.getBrowserVersion();
+        return browser + "." + (browserVersion.isEmpty() ? "installed" : browserVersion);
+    }
+
+    private static boolean browserChanged(Properties cache, String key) {
+        String binary = cache.getProperty(key + ".browserBinary");
+        // Entries stored before a session started, or for a pinned browserVersion, have no browser
+        return binary != null && !String.valueOf(lastModified(binary)).equals(cache.getProperty(key + ".browserModified"));
+    }
+
+    private static long lastModified(String file) {
+        try {
+            return Files.getLastModifiedTime(Paths.get(file)).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static void clearEntry(Properties cache, String key) {
+        cache.stringPropertyNames().stream()
+                .filter(name -> name.startsWith(key + "."))
+                .forEach(cache::remove);
+    }
+
+    private static WebDriverManager managerFor(String browser) {
+        switch (browser) {
+            case "firefox":
+                return WebDriverManager.firefoxdriver();
+            case "edge":
+                return WebDriverManager.edgedriver();
+            case "chrome":
+            default:
+                return WebDriverManager.chromedriver();
+        }
+    }
+
+    private static void exportDriverPath(String browser, String path) {
+        switch (browser) {
+            case "firefox":
+                System.setProperty(GeckoDriverService.GECKO_DRIVER_EXE_PROPERTY, path);
+                break;
+            case "edge":
+                System.setProperty(EdgeDriverService.EDGE_DRIVER_EXE_PROPERTY, path);
+                break;
+            case "chrome":
+            default:
+                System.setProperty(ChromeDriverService.CHROME_DRIVER_EXE_PROPERTY, path);
+                break;
+        }
+    }
+
+    private static Properties load(Path cacheFile) {
+        Properties cache = new Properties();
+        if (Files.exists(cacheFile)) {
+            try (InputStream in = Files.newInputStream(cacheFile)) {
+                cache.load(in);
+            } catch (IOException e) {
+                LoggerUtil.logWarning(logger, "Ignoring unreadable driver cache {}: {}", cacheFile, e.getMessage());
+            }
+        }
+        return cache;
+    }
+
+    private static void store(Path cacheFile, Properties cache) {
+        try {
+            Path parent = cacheFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, "driver-cache", ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                cache.store(out, "WebDriverManager resolution cache");
+            }
+            Files.move(tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LoggerUtil.logWarning(logger, "Failed to write driver cache {}: {}", cacheFile, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package core;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import utils.LoggerUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies the configured NetworkProfile to browser sessions and reports what it saved.
+ * On Chromium, URL patterns are blocked inside the browser with Network.setBlockedURLs and
+ * resource types are intercepted with the Fetch domain and failed before they are sent;
+ * after every page load the blocked request count and the bytes that were still transferred
+ * are logged. Firefox gets the closest preferences for images and fonts.
+ */
+public class NetworkInterceptor {
+    private static final Logger logger = LoggerUtil.getLogger(NetworkInterceptor.class);
+
+    /**
+     * Set Firefox preferences for the configured profile
+     * @param options Options of the session about to start
+     */
+    public static void configure(FirefoxOptions options) {
+        NetworkProfile profile = NetworkProfile.fromString(ConfigReader.getNetworkProfile());
+        List<String> types = profile.getResourceTypes();
+        if (types.contains("Image")) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        if (types.contains("Font")) {
+            options.addPreference("browser.display.use_document_fonts", 0);
+            options.addPreference("gfx.downloadable_fonts.enabled", false);
+        }
+        if (types.contains("Media")) {
+            options.addPreference("media.autoplay.default", 5);
+        }
+        if (!profile.getUrlPatterns().isEmpty()) {
+            LoggerUtil.logWarning(logger, "Firefox cannot block URL patterns, ignoring {} patterns of the {} profile",
+                    profile.getUrlPatterns().size(), profile);
+        }
+    }
+
+    /**
+     * Start blocking on the current window of a Chromium session; other browsers are left as they are
+     * @param driver Session to apply the profile to
+     */
+    public static void apply(WebDriver driver) {
+        NetworkProfile profile = NetworkProfile.fromString(ConfigReader.getNetworkProfile());
+        if (!profile.isBlocking() || !(driver instanceof HasCdp) || !(driver instanceof HasDevTools)) {
+            return;
+        }
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSession(driver.getWindowHandle());
+            devTools.clearListeners();
+            PageLoadStats stats = new PageLoadStats();
+
+            devTools.send(new Command<>("Network.enable", Map.of()));
+            devTools.send(new Command<>("Page.enable", Map.of()));
+            if (!profile.getUrlPatterns().isEmpty()) {
+                devTools.send(new Command<>("Network.setBlockedURLs", Map.of("urls", profile.getUrlPatterns())));
+            }
+            if (!profile.getResourceTypes().isEmpty()) {
+                List<Map<String, Object>> patterns = new ArrayList<>();
+                for (String type : profile.getResourceTypes()) {
+                    patterns.add(Map.of("urlPattern", "*", "resourceType", type, "requestStage", "Request"));
+                }
+                devTools.addListener(event("Fetch.requestPaused"), params -> {
+                    stats.blocked.incrementAndGet();
+                    devTools.send(new Command<>("Fetch.failRequest",
+                            Map.of("requestId", params.get("requestId"), "errorReason", "BlockedByClient")));
+                });
+                devTools.send(new Command<>("Fetch.enable", Map.of("patterns", patterns)));
+            }
+
+            devTools.addListener(event("Network.loadingFailed"), params -> {
+                if (params.containsKey("blockedReason")) {
+                    stats.blocked.incrementAndGet();
+                }
+            });
+            devTools.addListener(event("Network.loadingFinished"), params -> {
+                stats.loaded.incrementAndGet();
+                Object length = params.get("encodedDataLength");
+                if (length instanceof Number) {
+                    stats.bytes.addAndGet(((Number) length).longValue());
+                }
+            });
+            devTools.addListener(event("Page.loadEventFired"), params -> stats.report(profile));
+            logger.info("Network profile {} active: {} resource types, {} URL patterns",
+                    profile, profile.getResourceTypes().size(), profile.getUrlPatterns().size());
+        } catch (RuntimeException e) {
+            LoggerUtil.logWarning(logger, "Could not apply network profile {}: {}", profile, e.getMessage());
+        }
+    }
+
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+
+    private static class PageLoadStats {
+        private final AtomicLong blocked = new AtomicLong();
+        private final AtomicLong loaded = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+
+        private void report(NetworkProfile profile) {
+            // Blocked requests never reach the network, so their size is unknown; report what was still transferred
+            logger.info("Page load with {} profile: {} requests blocked, {} requests loaded, {} KB transferred",
+                    profile, blocked.getAndSet(0), loaded.getAndSet(0), bytes.getAndSet(0) / 1024);
+        }
+    }
+}
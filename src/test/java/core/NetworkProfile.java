@@ -0,0 +1,64 @@
+package core;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Request blocking profiles applied to every browser session, ordered from least to most aggressive.
+ * Resource types use the DevTools names (Image, Font, Media, Stylesheet, Script, ...);
+ * URL patterns use * as wildcard.
+ */
+public enum NetworkProfile {
+    /** Load everything */
+    NONE(List.of(), List.of()),
+    /** Block analytics, ads and tracking scripts plus fonts and media */
+    LEAN(List.of("Font", "Media"), Constants.TRACKERS),
+    /** Everything LEAN blocks plus images */
+    STRICT(List.of("Image", "Font", "Media"), Constants.TRACKERS),
+    /** Block network.blockedResourceTypes and network.blockedUrlPatterns */
+    CUSTOM(null, null);
+
+    private final List<String> resourceTypes;
+    private final List<String> urlPatterns;
+
+    NetworkProfile(List<String> resourceTypes, List<String> urlPatterns) {
+        this.resourceTypes = resourceTypes;
+        this.urlPatterns = urlPatterns;
+    }
+
+    public List<String> getResourceTypes() {
+        return resourceTypes != null ? resourceTypes : split(ConfigReader.getNetworkBlockedResourceTypes());
+    }
+
+    public List<String> getUrlPatterns() {
+        return urlPatterns != null ? urlPatterns : split(ConfigReader.getNetworkBlockedUrlPatterns());
+    }
+
+    public boolean isBlocking() {
+        return !getResourceTypes().isEmpty() || !getUrlPatterns().isEmpty();
+    }
+
+    public static NetworkProfile fromString(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown network profile: " + value
+                    + ". Supported values: none, lean, strict, custom", e);
+        }
+    }
+
+    private static List<String> split(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private static final class Constants {
+        private static final List<String> TRACKERS = List.of(
+                "*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*",
+                "*googlesyndication.com*", "*facebook.net*", "*hotjar.com*", "*segment.io*",
+                "*newrelic.com*", "*nr-data.net*", "*optimizely.com*");
+    }
+}
@@ -0,0 +1,167 @@
+package core;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import utils.LoggerUtil;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides when a page is actually usable: the document has been parsed, no fetch or XHR request
+ * is in flight and the DOM has not changed for pageReady.quietWindow milliseconds.
+ * The check runs inside the browser, so a wait costs one script call instead of a polling loop
+ * of round trips. On Chromium the request counters are installed before any page script runs;
+ * elsewhere they are installed by the first wait on each document.
+ */
+public class PageReadiness {
+    private static final Logger logger = LoggerUtil.getLogger(PageReadiness.class);
+
+    private static final String INSTALL_SCRIPT =
+            "(function () {"
+            + "  if (window.__pageReady) { return; }"
+            + "  var state = window.__pageReady = { inflight: 0, last: Date.now() };"
+            + "  function touch() { state.last = Date.now(); }"
+            + "  function settle() { state.inflight--; touch(); }"
+            + "  if (window.fetch) {"
+            + "    var originalFetch = window.fetch;"
+            + "    window.fetch = function () {"
+            + "      state.inflight++; touch();"
+            + "      try { return originalFetch.apply(this, arguments).finally(settle); } catch (e) { settle(); throw e; }"
+            + "    };"
+            + "  }"
+            + "  if (window.XMLHttpRequest) {"
+            + "    var originalSend = XMLHttpRequest.prototype.send;"
+            + "    XMLHttpRequest.prototype.send = function () {"
+            + "      state.inflight++; touch();"
+            + "      this.addEventListener('loadend', settle);"
+            + "      try { return originalSend.apply(this, arguments); } catch (e) { this.removeEventListener('loadend', settle); settle(); throw e; }"
+            + "    };"
+            + "  }"
+            + "  function observe() {"
+            + "    new MutationObserver(touch).observe(document.documentElement,"
+            + "        { childList: true, subtree: true, attributes: true, characterData: true });"
+            + "  }"
+            + "  if (document.documentElement) { observe(); } else { document.addEventListener('DOMContentLoaded', observe); }"
+            + "})();";
+
+    private static final String WAIT_SCRIPT =
+            "var done = arguments[arguments.length - 1];"
+            + "var quiet = arguments[0], deadline = Date.now() + arguments[1];"
+            + INSTALL_SCRIPT
+            + "(function check() {"
+            + "  var state = window.__pageReady;"
+            + "  if (document.readyState !== 'loading' && state.inflight <= 0 && Date.now() - state.last >= quiet) {"
+            + "    done(true); return;"
+            + "  }"
+            + "  if (Date.now() >= deadline) { done(false); return; }"
+            + "  setTimeout(check, 25);"
+            + "})();";
+
+    private static final String READY_STATE_SCRIPT = "return document.readyState";
+
+    // How Chromium and Firefox drivers report a script whose document was unloaded or replaced
+    private static final List<String> DOCUMENT_REPLACED = List.of("unloaded", "execution context was destroyed",
+            "cannot find context", "navigated or closed", "dead object");
+
+    /**
+     * Install the request counters ahead of every document the current tab loads (Chromium only)
+     * @param driver Session to prepare
+     */
+    public static void install(WebDriver driver) {
+        if (!ConfigReader.isPageReadyEnabled() || !(driver instanceof HasCdp)) {
+            return;
+        }
+        try {
+            ((HasCdp) driver).executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", Map.of("source", INSTALL_SCRIPT));
+        } catch (WebDriverException e) {
+            LoggerUtil.logWarning(logger, "Could not install page readiness script: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Wait until the current page is ready to use
+     * @param driver Session showing the page
+     * @param timeout Maximum time to wait
+     * @throws TimeoutException if the page is not ready in time and has not even finished loading
+     */
+    public static void waitUntilReady(WebDriver driver, Duration timeout) {
+        StepTimer.begin(StepTimer.Kind.WAIT, "pageReady");
+        try {
+            awaitReady(driver, timeout);
+        } finally {
+            StepTimer.end();
+        }
+    }
+
+    private static void awaitReady(WebDriver driver, Duration timeout) {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        long deadline = System.nanoTime() + timeout.toNanos();
+        // Keep each script call inside the driver's script timeout
+        long maxCallMillis = Math.max(1_000, ConfigReader.getScriptTimeout() * 1_000L - 1_000);
+        while (true) {
+            long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMillis <= 0) {
+                if (isLoaded(js)) {
+                    // Pages that poll or animate never go quiet; the document itself has loaded
+                    LoggerUtil.logWarning(logger, "Page loaded but did not settle within {} ms, continuing", timeout.toMillis());
+                    return;
+                }
+                throw new TimeoutException("Page was not ready within " + timeout.toMillis() + " ms");
+            }
+            try {
+                if (!ConfigReader.isPageReadyEnabled()) {
+                    if ("complete".equals(js.executeScript(READY_STATE_SCRIPT))) {
+                        return;
+                    }
+                    sleep(ConfigReader.getProbePollInterval());
+                } else if (Boolean.TRUE.equals(js.executeAsyncScript(WAIT_SCRIPT,
+                        ConfigReader.getPageReadyQuietWindow(), Math.min(remainingMillis, maxCallMillis)))) {
+                    return;
+                }
+            } catch (JavascriptException e) {
+                if (!isDocumentReplaced(e)) {
+                    throw e;
+                }
+                // The document was replaced while the check ran, so try again on the new one
+                sleep(ConfigReader.getProbePollInterval());
+            }
+        }
+    }
+
+    /**
+     * Check whether a script failed because its document was unloaded, e.g. by a navigation
+     * @param e Error thrown by executeScript or executeAsyncScript
+     * @return true when running the script again on the new document may succeed
+     */
+    public static boolean isDocumentReplaced(JavascriptException e) {
+        String message = e.getRawMessage() == null ? "" : e.getRawMessage().toLowerCase();
+        return DOCUMENT_REPLACED.stream().anyMatch(message::contains);
+    }
+
+    private static boolean isLoaded(JavascriptExecutor js) {
+        try {
+            return "complete".equals(js.executeScript(READY_STATE_SCRIPT));
+        } catch (JavascriptException e) {
+            if (!isDocumentReplaced(e)) {
+                throw e;
+            }
+            return false;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting for the page to be ready", e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package core;
+
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+
+/**
+ * Decides when a pooled browser session has served long enough and is replaced by a fresh one:
+ * after a number of scenarios, after a wall-clock age, or once the browser's resident memory
+ * passes a threshold. A limit of 0 is off.
+ */
+public class RecyclePolicy {
+    public static final RecyclePolicy NEVER = new RecyclePolicy(0, Duration.ZERO, 0);
+
+    private final int maxScenarios;
+    private final Duration maxAge;
+    private final long maxRssMb;
+
+    /**
+     * Create a policy
+     * @param maxScenarios Scenarios a session runs before it is replaced
+     * @param maxAge Age after which a session is replaced
+     * @param maxRssMb Resident memory of the browser, in MB, above which a session is replaced
+     */
+    public RecyclePolicy(int maxScenarios, Duration maxAge, long maxRssMb) {
+        this.maxScenarios = maxScenarios;
+        this.maxAge = maxAge;
+        this.maxRssMb = maxRssMb;
+    }
+
+    public static RecyclePolicy fromConfig() {
+        return new RecyclePolicy(ConfigReader.getRecycleMaxScenarios(),
+                Duration.ofMinutes(ConfigReader.getRecycleMaxAgeMinutes()), ConfigReader.getRecycleMaxRssMb());
+    }
+
+    /**
+     * Check a session that was just returned to the pool
+     * @param driver The session
+     * @param scenarios Scenarios the session has run
+     * @param age Time since the session started
+     * @return Why the session should be replaced, or null to keep it
+     */
+    public String reasonToRecycle(WebDriver driver, int scenarios, Duration age) {
+        if (maxScenarios > 0 && scenarios >= maxScenarios) {
+            return scenarios + " scenarios";
+        }
+        if (!maxAge.isZero() && age.compareTo(maxAge) >= 0) {
+            return "running for " + age.toMinutes() + " min";
+        }
+        if (maxRssMb > 0) {
+            long rssMb = BrowserProcesses.residentMemoryMb(driver);
+            if (rssMb > maxRssMb) {
+                return "browser using " + rssMb + " MB resident memory";
+            }
+        }
+        return null;
+    }
+}
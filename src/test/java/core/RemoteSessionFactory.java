@@ -0,0 +1,154 @@
+package core;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+import org.slf4j.Logger;
+import utils.LoggerUtil;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Starts RemoteWebDriver sessions against remote.url with a tuned HTTP transport.
+ * All sessions of an endpoint share one keep-alive HTTP client instead of opening a client and
+ * connection pool per session, the number of concurrent sessions per endpoint can be bounded,
+ * and retries of commands that hit transient connection errors are opt-in.
+ */
+public class RemoteSessionFactory {
+    private static final Logger logger = LoggerUtil.getLogger(RemoteSessionFactory.class);
+    private static final HttpClient.Factory defaultFactory = HttpClient.Factory.createDefault();
+    private static final Map<String, HttpClient> sharedClients = new ConcurrentHashMap<>();
+    private static final Map<String, Semaphore> sessionPermits = new ConcurrentHashMap<>();
+
+    static {
+        // Read once when the JDK HTTP client is first used, so they must be in place before any session starts
+        System.setProperty("jdk.httpclient.connectionPoolSize",
+                System.getProperty("jdk.httpclient.connectionPoolSize", String.valueOf(ConfigReader.getRemoteConnectionPoolSize())));
+        System.setProperty("jdk.httpclient.keepalive.timeout",
+                System.getProperty("jdk.httpclient.keepalive.timeout", String.valueOf(ConfigReader.getRemoteKeepAlive())));
+    }
+
+    /**
+     * Start a remote session, waiting for a free slot when remote.maxSessions is reached
+     * @param capabilities Requested browser capabilities
+     * @return The new session; quitting it frees its slot
+     */
+    public static WebDriver create(Capabilities capabilities) {
+        URL endpoint = endpoint();
+        Semaphore permits = permitsFor(endpoint);
+        if (permits != null) {
+            try {
+                if (!permits.tryAcquire(ConfigReader.getPoolLeaseTimeout(), TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("No free session on " + endpoint + " within "
+                            + ConfigReader.getPoolLeaseTimeout() + " seconds (remote.maxSessions="
+                            + ConfigReader.getRemoteMaxSessions() + ")");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a session on " + endpoint, e);
+            }
+        }
+
+        try {
+            ClientConfig config = ClientConfig.defaultConfig()
+                    .baseUrl(endpoint)
+                    .connectionTimeout(Duration.ofSeconds(ConfigReader.getRemoteConnectTimeout()))
+                    .readTimeout(Duration.ofSeconds(ConfigReader.getRemoteReadTimeout()));
+            if (ConfigReader.isRemoteRetries()) {
+                config = config.withRetries();
+            }
+            HttpClient.Factory factory = ConfigReader.isRemoteSharedClient()
+                    ? RemoteSessionFactory::sharedClient : defaultFactory;
+            HttpCommandExecutor executor = new HttpCommandExecutor(Map.of(), config, factory);
+            WebDriver driver = new PermitReleasingDriver(executor, capabilities, permits);
+            logger.info("Remote {} session started on {}", capabilities.getBrowserName(), endpoint);
+            return driver;
+        } catch (RuntimeException e) {
+            if (permits != null) {
+                permits.release();
+            }
+            throw e;
+        }
+    }
+
+    private static URL endpoint() {
+        try {
+            return URI.create(ConfigReader.getRemoteUrl()).toURL();
+        } catch (MalformedURLException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid remote.url: " + ConfigReader.getRemoteUrl(), e);
+        }
+    }
+
+    private static Semaphore permitsFor(URL endpoint) {
+        int maxSessions = ConfigReader.getRemoteMaxSessions();
+        if (maxSessions <= 0) {
+            return null;
+        }
+        return sessionPermits.computeIfAbsent(endpoint.toString(), key -> new Semaphore(maxSessions, true));
+    }
+
+    private static HttpClient sharedClient(ClientConfig config) {
+        return sharedClients.computeIfAbsent(config.baseUri().toString(),
+                key -> new SharedHttpClient(defaultFactory.createClient(config)));
+    }
+
+    /**
+     * Client shared by every session of one endpoint; sessions closing it on quit must not close the connections
+     */
+    private static class SharedHttpClient implements HttpClient {
+        private final HttpClient delegate;
+
+        private SharedHttpClient(HttpClient delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest request) {
+            return delegate.execute(request);
+        }
+
+        @Override
+        public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+            return delegate.openSocket(request, listener);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static class PermitReleasingDriver extends RemoteWebDriver {
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PermitReleasingDriver(HttpCommandExecutor executor, Capabilities capabilities, Semaphore permits) {
+            super(executor, capabilities);
+            this.permits = permits;
+        }
+
+        @Override
+        public void quit() {
+            try {
+                super.quit();
+            } finally {
+                if (permits != null && released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package core;
+
+/**
+ * Ways of resetting browser state between scenarios, ordered from cheapest to most expensive.
+ */
+public enum ResetStrategy {
+    /** Delete cookies of the current domain only */
+    COOKIES,
+    /** Delete all cookies plus localStorage, sessionStorage, IndexedDB, Cache Storage and service workers */
+    STORAGE,
+    /** Close every window, continue in a fresh tab and clear storage */
+    CONTEXT,
+    /** Quit the browser and start a new session */
+    RESTART,
+    /** Pick the cheapest strategy that still isolates the next scenario */
+    AUTO;
+
+    public static ResetStrategy fromString(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown reset strategy: " + value
+                    + ". Supported values: cookies, storage, context, restart, auto", e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package core;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import utils.LoggerUtil;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Captures screenshots on the test thread and spools them to disk on a background executor.
+ * The test thread only fetches the Base64 payload from the browser; decoding, optional
+ * downscaling or JPEG re-encoding and the file write happen off-thread, and the bounded
+ * queue makes the test thread write its own screenshot when the spooler falls behind,
+ * so pending images never pile up on the heap.
+ */
+public class ScreenshotPipeline {
+    private static final Logger logger = LoggerUtil.getLogger(ScreenshotPipeline.class);
+    private static final ThreadLocal<WebElement> lastElement = new ThreadLocal<>();
+    private static final AtomicInteger sequence = new AtomicInteger();
+    private static ThreadPoolExecutor executor;
+
+    /**
+     * Remember the element the current thread is acting on, for element screenshots
+     * @param element Element about to be used
+     */
+    public static void trackElement(WebElement element) {
+        lastElement.set(element);
+    }
+
+    /**
+     * Forget the element tracked for the current thread
+     */
+    public static void clearTrackedElement() {
+        lastElement.remove();
+    }
+
+    /**
+     * Capture the page, or the last tracked element when one is requested, and spool it to disk
+     * @param driver Driver of the current scenario
+     * @param name Base file name, sanitised before use
+     * @param elementOnly Capture only the last tracked element, falling back to the page
+     * @return Path the image will be written to, or null if nothing could be captured
+     */
+    public static Path capture(WebDriver driver, String name, boolean elementOnly) {
+        String base64 = null;
+        WebElement element = lastElement.get();
+        if (elementOnly && element != null) {
+            try {
+                base64 = element.getScreenshotAs(OutputType.BASE64);
+            } catch (RuntimeException e) {
+                LoggerUtil.logWarning(logger, "Element screenshot failed, capturing page instead: {}", e.getMessage());
+            }
+        }
+        if (base64 == null) {
+            if (!(driver instanceof TakesScreenshot)) {
+                return null;
+            }
+            base64 = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
+        }
+
+        String format = ConfigReader.getScreenshotFormat();
+        String fileName = name.replaceAll("[^A-Za-z0-9-_]+", "_") + "-" + sequence.incrementAndGet() + "." + format;
+        Path file = Paths.get(ConfigReader.getScreenshotDir()).resolve(fileName).toAbsolutePath();
+        String payload = base64;
+        getExecutor().execute(() -> write(payload, file, format));
+        return file;
+    }
+
+    /**
+     * Wait until every queued screenshot is on disk and stop the spooler
+     * @param timeoutSeconds Maximum time to wait
+     */
+    public static synchronized void shutdown(long timeoutSeconds) {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) {
+                LoggerUtil.logWarning(logger, "{} screenshots were still pending at shutdown", executor.getQueue().size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+    }
+
+    private static synchronized ThreadPoolExecutor getExecutor() {
+        if (executor == null) {
+            int threads = ConfigReader.getScreenshotThreads();
+            executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(ConfigReader.getScreenshotQueueSize()),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "screenshot-spooler");
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+            executor.allowCoreThreadTimeOut(true);
+        }
+        return executor;
+    }
+
+    private static void write(String base64, Path file, String format) {
+        try {
+            Files.createDirectories(file.getParent());
+            byte[] png = Base64.getDecoder().decode(base64);
+            int maxWidth = ConfigReader.getScreenshotMaxWidth();
+            if (maxWidth <= 0 && "png".equals(format)) {
+                Files.write(file, png);
+                return;
+            }
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            if (image == null) {
+                Files.write(file, png);
+                return;
+            }
+            BufferedImage output = resize(image, maxWidth, "png".equals(format));
+            try (OutputStream out = Files.newOutputStream(file)) {
+                ImageIO.write(output, format, out);
+            }
+        } catch (IOException | RuntimeException e) {
+            LoggerUtil.logError(logger, "Failed to write screenshot " + file, e);
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage image, int maxWidth, boolean keepAlpha) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        if (maxWidth > 0 && width > maxWidth) {
+            height = Math.max(1, height * maxWidth / width);
+            width = maxWidth;
+        }
+        // JPEG has no alpha channel, so always redraw into RGB for it
+        if (width == image.getWidth() && keepAlpha) {
+            return image;
+        }
+        BufferedImage output = new BufferedImage(width, height,
+                keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = output.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(image, 0, 0, width, height, null);
+        graphics.dispose();
+        return output;
+    }
+}
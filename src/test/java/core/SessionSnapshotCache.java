@@ -0,0 +1,142 @@
+package core;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import utils.LoggerUtil;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authenticated browser state per credential set, shared by all sessions of the JVM.
+ * The first scenario logs in through the UI and its cookies, localStorage and sessionStorage
+ * are captured; later scenarios get them injected and skip the login form. A snapshot is used
+ * until sessionCache.ttl or its earliest cookie expiry passes, and is dropped as soon as an
+ * injected session fails to reach the landing page.
+ */
+public class SessionSnapshotCache {
+    private static final Logger logger = LoggerUtil.getLogger(SessionSnapshotCache.class);
+    private static final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    private static final String CAPTURE_STORAGE_SCRIPT =
+            "function copy(storage) { var items = {};"
+            + "  for (var i = 0; i < storage.length; i++) { var key = storage.key(i); items[key] = storage.getItem(key); }"
+            + "  return items; }"
+            + "return { local: copy(localStorage), session: copy(sessionStorage) };";
+
+    private static final String RESTORE_STORAGE_SCRIPT =
+            "var local = arguments[0], session = arguments[1];"
+            + "Object.keys(local).forEach(function (key) { localStorage.setItem(key, local[key]); });"
+            + "Object.keys(session).forEach(function (key) { sessionStorage.setItem(key, session[key]); });";
+
+    /**
+     * Bring the session to the landing page as the given user, reusing a cached login when possible
+     * @param driver Session of the current scenario, showing a page of the application
+     * @param credentialSet Key of the credentials the snapshot belongs to
+     * @param landingUrl Page an authenticated user can open and an anonymous one cannot
+     * @param uiLogin Logs in through the UI, starting from the base URL
+     */
+    public static void restoreOrLogin(WebDriver driver, String credentialSet, String landingUrl, Runnable uiLogin) {
+        if (ConfigReader.isSessionCacheEnabled()) {
+            Snapshot snapshot = snapshots.get(credentialSet);
+            if (snapshot != null && !snapshot.isExpired()) {
+                long start = System.nanoTime();
+                if (restore(driver, snapshot, landingUrl)) {
+                    logger.info("Restored cached session for '{}' in {} ms", credentialSet, (System.nanoTime() - start) / 1_000_000);
+                    return;
+                }
+                LoggerUtil.logWarning(logger, "Cached session for '{}' is no longer valid, logging in again", credentialSet);
+                snapshots.remove(credentialSet, snapshot);
+                driver.manage().deleteAllCookies();
+                driver.navigate().to(ConfigReader.getBaseUrl());
+            }
+        }
+
+        uiLogin.run();
+        if (!isOnPage(driver, landingUrl)) {
+            throw new IllegalStateException("Login as '" + credentialSet + "' did not reach " + landingUrl
+                    + ", current page is " + driver.getCurrentUrl());
+        }
+        if (ConfigReader.isSessionCacheEnabled()) {
+            snapshots.put(credentialSet, capture(driver));
+            logger.info("Cached session for '{}'", credentialSet);
+        }
+    }
+
+    /**
+     * Drop every cached snapshot
+     */
+    public static void clear() {
+        snapshots.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Snapshot capture(WebDriver driver) {
+        Map<String, Object> storage = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(CAPTURE_STORAGE_SCRIPT);
+        Set<Cookie> cookies = driver.manage().getCookies();
+        long expiresAt = System.currentTimeMillis() + ConfigReader.getSessionCacheTtl() * 1_000L;
+        for (Cookie cookie : cookies) {
+            Date expiry = cookie.getExpiry();
+            if (expiry != null) {
+                expiresAt = Math.min(expiresAt, expiry.getTime());
+            }
+        }
+        return new Snapshot(cookies, asStrings(storage.get("local")), asStrings(storage.get("session")), expiresAt);
+    }
+
+    private static boolean restore(WebDriver driver, Snapshot snapshot, String landingUrl) {
+        try {
+            // Cookies and storage can only be set for the origin currently open, which is the base URL after reset
+            for (Cookie cookie : snapshot.cookies) {
+                driver.manage().addCookie(cookie);
+            }
+            ((JavascriptExecutor) driver).executeScript(RESTORE_STORAGE_SCRIPT, snapshot.localStorage, snapshot.sessionStorage);
+            driver.navigate().to(landingUrl);
+            PageReadiness.waitUntilReady(driver, Duration.ofSeconds(ConfigReader.getPageLoadTimeout()));
+            return isOnPage(driver, landingUrl);
+        } catch (WebDriverException e) {
+            LoggerUtil.logWarning(logger, "Failed to restore cached session: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean isOnPage(WebDriver driver, String url) {
+        String currentUrl = driver.getCurrentUrl();
+        return currentUrl != null && currentUrl.startsWith(url.split("[?#]")[0]);
+    }
+
+    private static Map<String, String> asStrings(Object items) {
+        if (!(items instanceof Map)) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> values = new HashMap<>();
+        ((Map<?, ?>) items).forEach((key, value) -> values.put(String.valueOf(key), String.valueOf(value)));
+        return values;
+    }
+
+    private static class Snapshot {
+        private final Set<Cookie> cookies;
+        private final Map<String, String> localStorage;
+        private final Map<String, String> sessionStorage;
+        private final long expiresAt;
+
+        private Snapshot(Set<Cookie> cookies, Map<String, String> localStorage, Map<String, String> sessionStorage, long expiresAt) {
+            this.cookies = cookies;
+            this.localStorage = localStorage;
+            this.sessionStorage = sessionStorage;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+}
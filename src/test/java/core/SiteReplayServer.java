@@ -0,0 +1,298 @@
+package core;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import utils.LoggerUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Local stand-in for the site under test. In record mode it is a reverse proxy in front of baseUrl
+ * that saves every response under site.recordingsDir; in replay mode it answers from those recordings
+ * without touching the network. ConfigReader.getBaseUrl() points at this server whenever site.mode is
+ * not live, so pages and steps need no changes. Only requests to the baseUrl origin are routed here;
+ * third-party hosts are still loaded by the browser directly.
+ */
+public class SiteReplayServer {
+    private static final Logger logger = LoggerUtil.getLogger(SiteReplayServer.class);
+    private static final Json JSON = new Json();
+    // Headers that describe one connection, or that the JDK HTTP client and server set themselves
+    private static final Set<String> HOP_BY_HOP = Set.of("connection", "keep-alive", "proxy-connection",
+            "proxy-authenticate", "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade",
+            "content-length", "host", "expect", "http2-settings", "strict-transport-security", "alt-svc");
+
+    private static SiteReplayServer instance;
+
+    private final String mode;
+    private final URI upstream;
+    private final Path recordingsDir;
+    private final Map<String, Recording> recordings = new ConcurrentHashMap<>();
+    private final Set<String> misses = ConcurrentHashMap.newKeySet();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final HttpClient client;
+    private final String localOrigin;
+
+    private SiteReplayServer(String mode, URI upstream, Path recordingsDir, int port) throws IOException {
+        this.mode = mode;
+        this.upstream = upstream;
+        this.recordingsDir = recordingsDir;
+        if ("replay".equals(mode)) {
+            load();
+        }
+        this.client = "record".equals(mode) ? HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build() : null;
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "site-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+        this.localOrigin = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Map the configured baseUrl to the local server, starting it on first use
+     * @param baseUrl baseUrl from config.properties
+     * @return The same path on the local server
+     */
+    public static synchronized String localUrl(String baseUrl) {
+        URI base = URI.create(baseUrl);
+        if (instance == null) {
+            String mode = ConfigReader.getSiteMode();
+            Path dir = Paths.get(ConfigReader.getSiteRecordingsDir(), base.getHost());
+            try {
+                instance = new SiteReplayServer(mode, URI.create(origin(base)), dir, ConfigReader.getSitePort());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to start the local " + mode + " server", e);
+            }
+            logger.info("Site {} server for {} listening on {} ({} recordings in {})",
+                    mode, instance.upstream, instance.localOrigin, instance.recordings.size(), dir);
+        }
+        return instance.localOrigin + (base.getRawPath() == null ? "" : base.getRawPath())
+                + (base.getRawQuery() == null ? "" : "?" + base.getRawQuery());
+    }
+
+    /**
+     * Stop the local server if it was started
+     */
+    public static synchronized void stop() {
+        if (instance != null) {
+            instance.server.stop(0);
+            instance.executor.shutdownNow();
+            if (!instance.misses.isEmpty()) {
+                LoggerUtil.logWarning(logger, "{} request(s) had no recording, re-record with -Dsite.mode=record: {}",
+                        instance.misses.size(), instance.misses);
+            }
+            instance = null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            byte[] requestBody = exchange.getRequestBody().readAllBytes();
+            String key = key(exchange.getRequestMethod(), exchange.getRequestURI().getRawPath(),
+                    exchange.getRequestURI().getRawQuery(), requestBody);
+            Recording recording;
+            if ("record".equals(mode)) {
+                try {
+                    recording = forward(exchange, requestBody, key);
+                } catch (IOException e) {
+                    LoggerUtil.logWarning(logger, "Failed to forward {}: {}", key, e.getMessage());
+                    recording = text(key, 502, "Upstream request failed: " + e.getMessage());
+                }
+            } else {
+                recording = recordings.get(key);
+                if (recording == null) {
+                    if (misses.add(key)) {
+                        LoggerUtil.logWarning(logger, "No recording for {}", key);
+                    }
+                    recording = text(key, 404, "No recording for " + key);
+                }
+            }
+            send(exchange, recording);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static Recording text(String key, int status, String message) {
+        return new Recording(key, status, Map.of("content-type", List.of("text/plain; charset=utf-8")),
+                message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Recording forward(HttpExchange exchange, byte[] requestBody, String key) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(upstream.resolve(exchange.getRequestURI().toString()))
+                .timeout(Duration.ofSeconds(30))
+                .method(exchange.getRequestMethod(), requestBody.length == 0
+                        ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(requestBody));
+        exchange.getRequestHeaders().forEach((name, values) -> {
+            if (!HOP_BY_HOP.contains(name.toLowerCase())) {
+                // The site sees requests as if the browser had loaded it directly
+                values.forEach(value -> request.header(name, value.replace(localOrigin, origin(upstream))));
+            }
+        });
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while forwarding " + key, e);
+        }
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        response.headers().map().forEach((name, values) -> {
+            if (!HOP_BY_HOP.contains(name.toLowerCase()) && !name.startsWith(":")) {
+                headers.put(name.toLowerCase(), new ArrayList<>(values));
+            }
+        });
+        Recording recording = new Recording(key, response.statusCode(), headers, response.body());
+        save(recording);
+        return recording;
+    }
+
+    private static String localizeCookie(String value) {
+        // Cookies scoped to the site's domain or to HTTPS would be rejected on 127.0.0.1, and browsers
+        // reject SameSite=None without Secure; every request now goes to one origin, so the default will do
+        return value.replaceAll("(?i);\\s*domain=[^;]*", "")
+                .replaceAll("(?i);\\s*secure(?=;|$)", "")
+                .replaceAll("(?i);\\s*samesite=none(?=;|$)", "");
+    }
+
+    private void send(HttpExchange exchange, Recording recording) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        recording.headers.forEach(headers::put);
+        // Recordings keep the site's headers; the port of this server changes between runs
+        List<String> location = recording.headers.get("location");
+        if (location != null) {
+            List<String> local = new ArrayList<>();
+            location.forEach(value -> local.add(value.replace(origin(upstream), localOrigin)));
+            headers.put("location", local);
+        }
+        List<String> cookies = recording.headers.get("set-cookie");
+        if (cookies != null) {
+            List<String> local = new ArrayList<>();
+            cookies.forEach(value -> local.add(localizeCookie(value)));
+            headers.put("set-cookie", local);
+        }
+        boolean noBody = "HEAD".equals(exchange.getRequestMethod()) || recording.status == 204
+                || recording.status == 304 || recording.body.length == 0;
+        exchange.sendResponseHeaders(recording.status, noBody ? -1 : recording.body.length);
+        if (!noBody) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(recording.body);
+            }
+        }
+    }
+
+    private void save(Recording recording) {
+        String name = fileName(recording.key);
+        try {
+            Files.createDirectories(recordingsDir);
+            Map<String, Object> meta = new LinkedHashMap<>();
+            meta.put("request", recording.key);
+            meta.put("status", recording.status);
+            meta.put("headers", recording.headers);
+            write(recordingsDir.resolve(name + ".body"), recording.body);
+            write(recordingsDir.resolve(name + ".json"), JSON.toJson(meta).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LoggerUtil.logError(logger, "Failed to save recording of " + recording.key, e);
+        }
+    }
+
+    private static void write(Path file, byte[] content) throws IOException {
+        // Concurrent recordings of the same request never leave a half-written file behind
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        Files.write(temp, content);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void load() throws IOException {
+        if (!Files.isDirectory(recordingsDir)) {
+            LoggerUtil.logWarning(logger, "No recordings in {}, run once with -Dsite.mode=record", recordingsDir);
+            return;
+        }
+        try (Stream<Path> files = Files.list(recordingsDir)) {
+            for (Path meta : (Iterable<Path>) files.filter(file -> file.toString().endsWith(".json"))::iterator) {
+                Map<String, Object> values = JSON.toType(Files.readString(meta), Json.MAP_TYPE);
+                String name = meta.getFileName().toString();
+                Path body = meta.resolveSibling(name.substring(0, name.length() - ".json".length()) + ".body");
+                String key = (String) values.get("request");
+                recordings.put(key, new Recording(key, ((Number) values.get("status")).intValue(),
+                        (Map<String, List<String>>) values.get("headers"), Files.readAllBytes(body)));
+            }
+        }
+    }
+
+    private static String key(String method, String path, String query, byte[] body) {
+        String key = method + " " + path + (query == null ? "" : "?" + query);
+        // Requests with a body are told apart by its content
+        return body.length == 0 ? key : key + " #" + sha256(body).substring(0, 16);
+    }
+
+    private static String fileName(String key) {
+        String readable = key.replaceAll("[^A-Za-z0-9.-]+", "_");
+        return (readable.length() > 60 ? readable.substring(0, 60) : readable) + "-" + sha256(
+                key.getBytes(StandardCharsets.UTF_8)).substring(0, 12);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String origin(URI uri) {
+        return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() == -1 ? "" : ":" + uri.getPort());
+    }
+
+    private static class Recording {
+        private final String key;
+        private final int status;
+        private final Map<String, List<String>> headers;
+        private final byte[] body;
+
+        private Recording(String key, int status, Map<String, List<String>> headers, byte[] body) {
+            this.key = key;
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+}
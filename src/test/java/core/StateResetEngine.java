@@ -0,0 +1,162 @@
+package core;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import utils.LoggerUtil;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resets a leased browser session to a clean state and opens the base URL.
+ * The strategy comes from reset.strategy; in auto mode the engine inspects the session
+ * and escalates only as far as needed to isolate the next scenario.
+ */
+public class StateResetEngine {
+    private static final Logger logger = LoggerUtil.getLogger(StateResetEngine.class);
+
+    private static final String CLEAR_STORAGE_SCRIPT =
+            "var done = arguments[arguments.length - 1];"
+            + "try { localStorage.clear(); sessionStorage.clear(); } catch (e) {}"
+            + "var tasks = [];"
+            + "if (window.indexedDB && indexedDB.databases) { tasks.push(indexedDB.databases().then(function (dbs) {"
+            + "  return Promise.all(dbs.map(function (db) { return new Promise(function (resolve) {"
+            + "    var request = indexedDB.deleteDatabase(db.name);"
+            + "    request.onsuccess = request.onerror = request.onblocked = resolve; }); })); })); }"
+            + "if (navigator.serviceWorker) { tasks.push(navigator.serviceWorker.getRegistrations().then(function (regs) {"
+            + "  return Promise.all(regs.map(function (reg) { return reg.unregister(); })); })); }"
+            + "if (window.caches) { tasks.push(caches.keys().then(function (keys) {"
+            + "  return Promise.all(keys.map(function (key) { return caches.delete(key); })); })); }"
+            + "Promise.all(tasks).then(function () { done(true); }, function () { done(false); });";
+
+    private static final String STORAGE_USAGE_SCRIPT =
+            "var done = arguments[arguments.length - 1];"
+            + "var used = 0;"
+            + "try { used += localStorage.length + sessionStorage.length; } catch (e) {}"
+            + "var tasks = [];"
+            + "if (window.indexedDB && indexedDB.databases) { tasks.push(indexedDB.databases().then(function (dbs) { used += dbs.length; })); }"
+            + "if (navigator.serviceWorker) { tasks.push(navigator.serviceWorker.getRegistrations().then(function (regs) { used += regs.length; })); }"
+            + "if (window.caches) { tasks.push(caches.keys().then(function (keys) { used += keys.length; })); }"
+            + "Promise.all(tasks).then(function () { done(used); }, function () { done(-1); });";
+
+    /**
+     * Reset the session state with the configured strategy and navigate to the base URL
+     * @param driver Session leased by the current thread
+     * @return The session to continue with, which is a new one after a restart
+     */
+    public static WebDriver reset(WebDriver driver) {
+        long start = System.nanoTime();
+        ResetStrategy strategy = ResetStrategy.fromString(ConfigReader.getResetStrategy());
+        if (strategy == ResetStrategy.AUTO) {
+            strategy = chooseStrategy(driver);
+        }
+
+        switch (strategy) {
+            case RESTART:
+                driver = DriverFactory.restartDriver();
+                break;
+            case CONTEXT:
+                openFreshContext(driver);
+                clearStorage(driver);
+                break;
+            case STORAGE:
+                clearStorage(driver);
+                break;
+            case COOKIES:
+            default:
+                driver.manage().deleteAllCookies();
+                break;
+        }
+        driver.navigate().to(ConfigReader.getBaseUrl());
+        PageReadiness.waitUntilReady(driver, Duration.ofSeconds(ConfigReader.getPageLoadTimeout()));
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        logger.info("Browser state reset using {} strategy in {} ms", strategy, elapsedMs);
+        return driver;
+    }
+
+    private static ResetStrategy chooseStrategy(WebDriver driver) {
+        Set<String> handles;
+        String currentUrl;
+        try {
+            handles = driver.getWindowHandles();
+            currentUrl = driver.getCurrentUrl();
+        } catch (WebDriverException e) {
+            return ResetStrategy.RESTART;
+        }
+        if (handles.size() > 1) {
+            return ResetStrategy.CONTEXT;
+        }
+        if (currentUrl == null || !currentUrl.startsWith("http")) {
+            // Session has not loaded any page yet, so there is nothing beyond cookies to clean up
+            return ResetStrategy.COOKIES;
+        }
+        if (!isBaseOrigin(currentUrl)) {
+            return ResetStrategy.STORAGE;
+        }
+        try {
+            Object used = ((JavascriptExecutor) driver).executeAsyncScript(STORAGE_USAGE_SCRIPT);
+            return used instanceof Number && ((Number) used).longValue() == 0
+                    ? ResetStrategy.COOKIES : ResetStrategy.STORAGE;
+        } catch (WebDriverException e) {
+            return ResetStrategy.STORAGE;
+        }
+    }
+
+    private static void clearStorage(WebDriver driver) {
+        if (driver instanceof HasCdp) {
+            // DevTools clears every cookie and all storage of the base origin without visiting it
+            HasCdp cdp = (HasCdp) driver;
+            cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            cdp.executeCdpCommand("Storage.clearDataForOrigin",
+                    Map.of("origin", baseOrigin(), "storageTypes", "all"));
+            return;
+        }
+
+        String currentUrl = driver.getCurrentUrl();
+        if (currentUrl == null || !isBaseOrigin(currentUrl)) {
+            driver.navigate().to(ConfigReader.getBaseUrl());
+        }
+        driver.manage().deleteAllCookies();
+        try {
+            ((JavascriptExecutor) driver).executeAsyncScript(CLEAR_STORAGE_SCRIPT);
+        } catch (WebDriverException e) {
+            LoggerUtil.logWarning(logger, "Failed to clear web storage: {}", e.getMessage());
+        }
+    }
+
+    private static void openFreshContext(WebDriver driver) {
+        Set<String> oldHandles = driver.getWindowHandles();
+        driver.switchTo().newWindow(WindowType.TAB);
+        String freshHandle = driver.getWindowHandle();
+        for (String handle : oldHandles) {
+            driver.switchTo().window(handle).close();
+        }
+        driver.switchTo().window(freshHandle);
+        // Request blocking and readiness scripts are bound to a tab, so attach them to the new one
+        NetworkInterceptor.apply(driver);
+        PageReadiness.install(driver);
+    }
+
+    private static boolean isBaseOrigin(String url) {
+        try {
+            return origin(URI.create(url)).equals(baseOrigin());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String baseOrigin() {
+        return origin(URI.create(ConfigReader.getBaseUrl()));
+    }
+
+    private static String origin(URI uri) {
+        return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() == -1 ? "" : ":" + uri.getPort());
+    }
+}
@@ -0,0 +1,133 @@
+package core;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Splits the time of the running Cucumber step into WebDriver commands, explicit waits and sleeps.
+ * Framework code marks those sections with begin()/end(); sections nest, and each one is only charged
+ * its own time, so a command issued inside a wait counts as command time and not twice.
+ * Recording is bound to the thread running the step between start() and stop(); without an active
+ * recording begin() and end() cost one ThreadLocal lookup.
+ */
+public class StepTimer {
+    public enum Kind {
+        COMMAND("webdriver"), WAIT("wait"), SLEEP("sleep");
+
+        private final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private static final ThreadLocal<StepTimer> active = new ThreadLocal<>();
+
+    private final long[] nanosByKind = new long[Kind.values().length];
+    private final Map<String, Long> nanosByPath = new HashMap<>();
+    private final Deque<Section> sections = new ArrayDeque<>();
+
+    /**
+     * Start recording the step about to run on the current thread
+     */
+    public static void start() {
+        active.set(new StepTimer());
+    }
+
+    /**
+     * Stop recording on the current thread
+     * @return The finished recording, or null if none was started
+     */
+    public static StepTimer stop() {
+        StepTimer timer = active.get();
+        active.remove();
+        return timer;
+    }
+
+    /**
+     * Check whether the current thread is recording a step
+     * @return True between start() and stop()
+     */
+    public static boolean isActive() {
+        return active.get() != null;
+    }
+
+    /**
+     * Enter a timed section; every call must be paired with end() in a finally block
+     * @param kind What the section waits on
+     * @param detail Command, wait condition or reason for the sleep
+     */
+    public static void begin(Kind kind, String detail) {
+        StepTimer timer = active.get();
+        if (timer != null) {
+            Section parent = timer.sections.peek();
+            String frame = kind.label + ":" + detail;
+            timer.sections.push(new Section(kind, parent == null ? frame : parent.path + ";" + frame, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Leave the innermost timed section
+     */
+    public static void end() {
+        StepTimer timer = active.get();
+        if (timer == null || timer.sections.isEmpty()) {
+            return;
+        }
+        Section section = timer.sections.pop();
+        long elapsed = System.nanoTime() - section.startNanos;
+        long own = elapsed - section.childNanos;
+        timer.nanosByKind[section.kind.ordinal()] += own;
+        timer.nanosByPath.merge(section.path, own, Long::sum);
+        Section parent = timer.sections.peek();
+        if (parent != null) {
+            parent.childNanos += elapsed;
+        }
+    }
+
+    /**
+     * Sleep as a timed section
+     * @param reason Shown in the profile, e.g. the calling method
+     * @param millis Time to sleep
+     * @throws InterruptedException if the thread is interrupted while sleeping
+     */
+    public static void sleep(String reason, long millis) throws InterruptedException {
+        begin(Kind.SLEEP, reason);
+        try {
+            Thread.sleep(millis);
+        } finally {
+            end();
+        }
+    }
+
+    public long getNanos(Kind kind) {
+        return nanosByKind[kind.ordinal()];
+    }
+
+    /**
+     * Own time of every section path, for flame graphs
+     * @return Paths of nested sections joined by ';', mapped to nanoseconds
+     */
+    public Map<String, Long> getNanosByPath() {
+        return nanosByPath;
+    }
+
+    private static class Section {
+        private final Kind kind;
+        private final String path;
+        private final long startNanos;
+        private long childNanos;
+
+        private Section(Kind kind, String path, long startNanos) {
+            this.kind = kind;
+            this.path = path;
+            this.startNanos = startNanos;
+        }
+    }
+}
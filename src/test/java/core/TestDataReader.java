@@ -2,32 +2,117 @@ package core;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+/**
+ * Test data of the current scenario: flat values from testdata.properties, loaded on first use,
+ * and the dataset row bound to the current thread for scenarios tagged with @data:&lt;file&gt;
+ */
 public class TestDataReader {
-    private static final Properties testData = new Properties();
+    private static final ThreadLocal<Map<String, String>> currentRow = new ThreadLocal<>();
+    private static final Pattern PLACEHOLDER = Pattern.compile("<([^<>]+)>");
 
-    static {
-        try (FileInputStream fis = new FileInputStream("src/test/resources/config/testdata.properties")) {
-            testData.load(fis);
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to load testdata.properties", e);
+    private static class Holder {
+        private static final Properties testData = new Properties();
+
+        static {
+            try (FileInputStream fis = new FileInputStream("src/test/resources/config/testdata.properties")) {
+                testData.load(fis);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to load testdata.properties", e);
+            }
         }
     }
 
     public static String getLoginUsername() {
-        return testData.getProperty("login.username");
+        return Holder.testData.getProperty("login.username");
     }
 
     public static String getLoginPassword() {
-        return testData.getProperty("login.password");
+        return Holder.testData.getProperty("login.password");
+    }
+
+    /**
+     * Get the username of a named credential set
+     * @param credentialSet Set name; "default" uses login.username
+     * @return Username from login.{set}.username
+     */
+    public static String getLoginUsername(String credentialSet) {
+        return "default".equals(credentialSet) ? getLoginUsername() : required("login." + credentialSet + ".username");
+    }
+
+    /**
+     * Get the password of a named credential set
+     * @param credentialSet Set name; "default" uses login.password
+     * @return Password from login.{set}.password
+     */
+    public static String getLoginPassword(String credentialSet) {
+        return "default".equals(credentialSet) ? getLoginPassword() : required("login." + credentialSet + ".password");
     }
 
+    /**
+     * Get the page a successful login lands on
+     * @return login.expected.url resolved against ConfigReader.getBaseUrl(), so it points at the local server in record and replay modes
+     */
     public static String getExpectedLoginUrl() {
-        return testData.getProperty("login.expected.url");
+        return URI.create(ConfigReader.getBaseUrl()).resolve(Holder.testData.getProperty("login.expected.url")).toString();
     }
 
     public static String getTestData(String key) {
-        return testData.getProperty(key);
+        return Holder.testData.getProperty(key);
+    }
+
+    /**
+     * Bind a dataset row to the current thread for the scenario about to run
+     * @param row Column name to value
+     */
+    public static void bindRow(Map<String, String> row) {
+        currentRow.set(row);
+    }
+
+    public static void clearRow() {
+        currentRow.remove();
+    }
+
+    /**
+     * Get the dataset row of the current scenario
+     * @return Column name to value, empty when the scenario is not data-driven
+     */
+    public static Map<String, String> getRow() {
+        Map<String, String> row = currentRow.get();
+        return row == null ? Collections.emptyMap() : row;
+    }
+
+    /**
+     * Replace &lt;column&gt; placeholders with values of the current dataset row
+     * @param text Step argument, e.g. "&lt;username&gt;"
+     * @return Text with every placeholder of a known column replaced
+     */
+    public static String resolve(String text) {
+        Map<String, String> row = currentRow.get();
+        if (row == null || text == null || text.indexOf('<') < 0) {
+            return text;
+        }
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        StringBuilder resolved = new StringBuilder();
+        while (matcher.find()) {
+            String value = row.get(matcher.group(1));
+            matcher.appendReplacement(resolved, Matcher.quoteReplacement(value != null ? value : matcher.group()));
+        }
+        matcher.appendTail(resolved);
+        return resolved.toString();
+    }
+
+    private static String required(String key) {
+        String value = Holder.testData.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing test data: " + key);
+        }
+        return value;
     }
 }
\ No newline at end of file
@@ -0,0 +1,177 @@
+package core;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compares two equally sized ARGB images tile by tile.
+ * Every tile gets a 64-bit hash of its colour-quantised pixels. The quantisation buckets are never
+ * wider than the pixel threshold, so tiles with equal hashes only differ in ways the pixel diff would
+ * ignore anyway; only tiles whose hashes differ are compared pixel by pixel.
+ */
+public class TileComparator {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int tileSize;
+    private final int pixelThreshold;
+    private final double tolerance;
+    private final int shift;
+    private final int quantizeMask;
+
+    /**
+     * Create a comparator
+     * @param tileSize Edge length of a tile in pixels
+     * @param pixelThreshold Largest per-channel difference two pixels may have and still count as equal
+     * @param tolerancePercent Percentage of differing pixels a tile may contain and still match
+     */
+    public TileComparator(int tileSize, int pixelThreshold, double tolerancePercent) {
+        if (tileSize < 1) {
+            throw new IllegalArgumentException("Tile size must be at least 1 but was: " + tileSize);
+        }
+        this.tileSize = tileSize;
+        this.pixelThreshold = Math.max(0, Math.min(255, pixelThreshold));
+        this.tolerance = tolerancePercent / 100.0;
+        // Largest power of two bucket whose values are all within the threshold of each other
+        this.shift = 31 - Integer.numberOfLeadingZeros(this.pixelThreshold + 1);
+        int channel = 0xFF >>> shift;
+        this.quantizeMask = channel << 24 | channel << 16 | channel << 8 | channel;
+    }
+
+    /**
+     * Hash every tile of an image
+     * @param pixels ARGB pixels, row by row
+     * @param width Image width
+     * @param height Image height
+     * @return One hash per tile, row by row
+     */
+    public long[] hash(int[] pixels, int width, int height) {
+        int tilesX = (width + tileSize - 1) / tileSize;
+        int tilesY = (height + tileSize - 1) / tileSize;
+        long[] hashes = new long[tilesX * tilesY];
+        Arrays.fill(hashes, FNV_OFFSET);
+        for (int y = 0; y < height; y++) {
+            int rowTile = y / tileSize * tilesX;
+            int offset = y * width;
+            for (int tileX = 0; tileX < tilesX; tileX++) {
+                int start = tileX * tileSize;
+                int end = Math.min(start + tileSize, width);
+                long hash = hashes[rowTile + tileX];
+                for (int x = start; x < end; x++) {
+                    hash = (hash ^ ((pixels[offset + x] >>> shift) & quantizeMask)) * FNV_PRIME;
+                }
+                hashes[rowTile + tileX] = hash;
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * Find the tiles that differ beyond the tolerance
+     * @param actual ARGB pixels of the new image
+     * @param actualHashes Tile hashes of the new image
+     * @param baselineHashes Tile hashes of the baseline
+     * @param baseline Supplies the baseline pixels; only called when a tile hash differs
+     * @param width Width of both images
+     * @param height Height of both images
+     * @return Bounds of the failing tiles, empty when the images match
+     */
+    public List<Rectangle> compare(int[] actual, long[] actualHashes, long[] baselineHashes,
+                                   Supplier<int[]> baseline, int width, int height) {
+        List<Rectangle> failing = new ArrayList<>();
+        int tilesX = (width + tileSize - 1) / tileSize;
+        int[] expected = null;
+        for (int tile = 0; tile < actualHashes.length; tile++) {
+            if (actualHashes[tile] == baselineHashes[tile]) {
+                continue;
+            }
+            if (expected == null) {
+                expected = baseline.get();
+            }
+            Rectangle bounds = tileBounds(tile, tilesX, width, height);
+            int differing = countDiffering(actual, expected, width, bounds);
+            if (differing > tolerance * bounds.width * bounds.height) {
+                failing.add(bounds);
+            }
+        }
+        return failing;
+    }
+
+    /**
+     * Count the pixels of a region that differ by more than the pixel threshold
+     * @param actual ARGB pixels of the new image
+     * @param expected ARGB pixels of the baseline
+     * @param width Width of both images
+     * @param region Region to compare
+     * @return Number of differing pixels
+     */
+    public int countDiffering(int[] actual, int[] expected, int width, Rectangle region) {
+        int differing = 0;
+        for (int y = region.y; y < region.y + region.height; y++) {
+            int offset = y * width;
+            for (int x = region.x; x < region.x + region.width; x++) {
+                if (differs(actual[offset + x], expected[offset + x])) {
+                    differing++;
+                }
+            }
+        }
+        return differing;
+    }
+
+    /**
+     * Draw the new image with the differing pixels of the failing tiles in red and the tiles outlined
+     * @param actual ARGB pixels of the new image
+     * @param expected ARGB pixels of the baseline
+     * @param width Width of both images
+     * @param height Height of both images
+     * @param failing Tiles returned by compare()
+     * @return Diff image
+     */
+    public BufferedImage diffImage(int[] actual, int[] expected, int width, int height, List<Rectangle> failing) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, width, height, actual, 0, width);
+        for (Rectangle tile : failing) {
+            for (int y = tile.y; y < tile.y + tile.height; y++) {
+                for (int x = tile.x; x < tile.x + tile.width; x++) {
+                    int index = y * width + x;
+                    if (differs(actual[index], expected[index])) {
+                        image.setRGB(x, y, 0xFF0000);
+                    }
+                }
+            }
+        }
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.MAGENTA);
+        graphics.setStroke(new BasicStroke(2));
+        for (Rectangle tile : failing) {
+            graphics.drawRect(tile.x, tile.y, tile.width - 1, tile.height - 1);
+        }
+        graphics.dispose();
+        return image;
+    }
+
+    private boolean differs(int a, int b) {
+        if (a == b) {
+            return false;
+        }
+        for (int bits = 0; bits < 32; bits += 8) {
+            if (Math.abs((a >>> bits & 0xFF) - (b >>> bits & 0xFF)) > pixelThreshold) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Rectangle tileBounds(int tile, int tilesX, int width, int height) {
+        int x = tile % tilesX * tileSize;
+        int y = tile / tilesX * tileSize;
+        return new Rectangle(x, y, Math.min(tileSize, width - x), Math.min(tileSize, height - y));
+    }
+}
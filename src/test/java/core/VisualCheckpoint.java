@@ -0,0 +1,248 @@
+package core;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import utils.LoggerUtil;
+
+import javax.imageio.ImageIO;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Compares screenshots of the page or of one element with baseline images under visual.baselineDir.
+ * Tile hashes of each baseline are computed once per JVM and cached, so a matching checkpoint costs
+ * one screenshot decode and one hashing pass; the baseline image is only read when a tile hash differs,
+ * and only those tiles are diffed pixel by pixel. Baselines are kept per browser and viewport size,
+ * since both change the rendering; a missing baseline fails the checkpoint unless visual.update is set.
+ */
+public class VisualCheckpoint {
+    private static final Logger logger = LoggerUtil.getLogger(VisualCheckpoint.class);
+    private static final Map<Path, BaselineHashes> baselineHashes = new ConcurrentHashMap<>();
+    private static final ThreadLocal<List<Path>> diffs = ThreadLocal.withInitial(ArrayList::new);
+
+    // Viewport size and the areas of ignored elements, relative to the captured element
+    private static final String CAPTURE_CONTEXT_SCRIPT =
+            "var target = arguments[0], ignored = arguments[1], ratio = window.devicePixelRatio || 1;"
+            + "var origin = target ? target.getBoundingClientRect() : { left: 0, top: 0 };"
+            + "return { viewport: window.innerWidth + 'x' + window.innerHeight,"
+            + "  regions: ignored.map(function (el) { var r = el.getBoundingClientRect();"
+            + "    return [(r.left - origin.left) * ratio, (r.top - origin.top) * ratio, r.width * ratio, r.height * ratio]; }) };";
+
+    /**
+     * Compare a screenshot with its baseline
+     * @param driver Driver of the current scenario
+     * @param element Element to capture, or null for the visible page
+     * @param name Baseline name, unique per page or element state
+     * @param ignored Elements whose area is left out of the comparison
+     * @throws AssertionError if tiles differ beyond visual.tolerance, the size changed or there is no baseline
+     */
+    public static void verify(WebDriver driver, WebElement element, String name, List<WebElement> ignored) {
+        long start = System.nanoTime();
+        String base64 = element != null ? element.getScreenshotAs(OutputType.BASE64)
+                : ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
+        BufferedImage image = decode(Base64.getDecoder().decode(base64));
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] actual = image.getRGB(0, 0, width, height, null, 0, width);
+
+        Map<?, ?> context = (Map<?, ?>) ((JavascriptExecutor) driver).executeScript(CAPTURE_CONTEXT_SCRIPT, element, ignored);
+        List<Rectangle> masks = ignoreRegions(name, (List<?>) context.get("regions"));
+        mask(actual, width, height, masks);
+        TileComparator comparator = new TileComparator(ConfigReader.getVisualTileSize(),
+                ConfigReader.getVisualPixelThreshold(), ConfigReader.getVisualTolerance());
+        long[] hashes = comparator.hash(actual, width, height);
+
+        Path baseline = Paths.get(ConfigReader.getVisualBaselineDir(), ConfigReader.getBrowser().toLowerCase(),
+                String.valueOf(context.get("viewport")), fileName(name) + ".png");
+        if (ConfigReader.isVisualUpdate()) {
+            writeBaseline(baseline, image);
+            baselineHashes.put(baseline, new BaselineHashes(lastModified(baseline), masks.toString(), width, height, hashes));
+            LoggerUtil.logWarning(logger, "Visual baseline '{}' written to {}", name, baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            Path actualFile = writeDiffFile(name + "-actual", image);
+            throw new AssertionError("Visual checkpoint '" + name + "' has no baseline at " + baseline
+                    + "; capture saved to " + actualFile + ", run with -Dvisual.update=true to accept it");
+        }
+
+        BaselineHashes cached = baselineHashes.get(baseline);
+        long modified = lastModified(baseline);
+        int[][] loaded = new int[1][];
+        if (cached == null || !cached.matches(modified, masks.toString())) {
+            BufferedImage baselineImage = decode(readBytes(baseline));
+            int baselineWidth = baselineImage.getWidth();
+            int baselineHeight = baselineImage.getHeight();
+            loaded[0] = baselineImage.getRGB(0, 0, baselineWidth, baselineHeight, null, 0, baselineWidth);
+            mask(loaded[0], baselineWidth, baselineHeight, masks);
+            cached = new BaselineHashes(modified, masks.toString(), baselineWidth, baselineHeight,
+                    comparator.hash(loaded[0], baselineWidth, baselineHeight));
+            baselineHashes.put(baseline, cached);
+        }
+        if (cached.width != width || cached.height != height) {
+            Path actualFile = writeDiffFile(name + "-actual", image);
+            throw new AssertionError("Visual checkpoint '" + name + "' is " + width + "x" + height
+                    + " but its baseline is " + cached.width + "x" + cached.height + "; capture saved to " + actualFile);
+        }
+
+        Supplier<int[]> baselinePixels = () -> {
+            if (loaded[0] == null) {
+                loaded[0] = readBaseline(baseline, masks);
+            }
+            return loaded[0];
+        };
+        List<Rectangle> failing = comparator.compare(actual, hashes, cached.hashes, baselinePixels, width, height);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        if (failing.isEmpty()) {
+            logger.info("Visual checkpoint '{}' matches its baseline ({} ms)", name, elapsedMs);
+            return;
+        }
+
+        Path diffFile = writeDiffFile(name + "-diff",
+                comparator.diffImage(actual, baselinePixels.get(), width, height, failing));
+        writeDiffFile(name + "-actual", image);
+        throw new AssertionError("Visual checkpoint '" + name + "' differs from its baseline in " + failing.size()
+                + " of " + hashes.length + " tiles, first at " + failing.get(0).x + "," + failing.get(0).y
+                + "; diff saved to " + diffFile);
+    }
+
+    /**
+     * Take the diff images written by failed checkpoints of the current thread
+     * @return Diff images since the last call, empty if every checkpoint matched
+     */
+    public static List<Path> drainDiffs() {
+        List<Path> files = new ArrayList<>(diffs.get());
+        diffs.remove();
+        return files;
+    }
+
+    private static List<Rectangle> ignoreRegions(String name, List<?> elementRegions) {
+        List<Rectangle> regions = new ArrayList<>();
+        for (String region : ConfigReader.getVisualIgnoreRegions(name).split(";")) {
+            String[] values = region.trim().split("\\s*,\\s*");
+            if (values.length == 4) {
+                regions.add(new Rectangle(Integer.parseInt(values[0]), Integer.parseInt(values[1]),
+                        Integer.parseInt(values[2]), Integer.parseInt(values[3])));
+            } else if (!region.isBlank()) {
+                LoggerUtil.logWarning(logger, "Ignoring malformed region '{}' of visual checkpoint '{}'", region, name);
+            }
+        }
+        for (Object item : elementRegions) {
+            List<?> rect = (List<?>) item;
+            double x = ((Number) rect.get(0)).doubleValue();
+            double y = ((Number) rect.get(1)).doubleValue();
+            // Grow to whole pixels so anti-aliased edges are covered too
+            int left = (int) Math.floor(x);
+            int top = (int) Math.floor(y);
+            regions.add(new Rectangle(left, top, (int) Math.ceil(x + ((Number) rect.get(2)).doubleValue()) - left,
+                    (int) Math.ceil(y + ((Number) rect.get(3)).doubleValue()) - top));
+        }
+        return regions;
+    }
+
+    private static void mask(int[] pixels, int width, int height, List<Rectangle> regions) {
+        for (Rectangle region : regions) {
+            Rectangle clipped = region.intersection(new Rectangle(0, 0, width, height));
+            for (int y = clipped.y; y < clipped.y + clipped.height; y++) {
+                Arrays.fill(pixels, y * width + clipped.x, y * width + clipped.x + clipped.width, 0);
+            }
+        }
+    }
+
+    private static int[] readBaseline(Path baseline, List<Rectangle> masks) {
+        BufferedImage image = decode(readBytes(baseline));
+        int[] pixels = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+        mask(pixels, image.getWidth(), image.getHeight(), masks);
+        return pixels;
+    }
+
+    private static void writeBaseline(Path baseline, BufferedImage image) {
+        try {
+            Files.createDirectories(baseline.getParent());
+            ImageIO.write(image, "png", baseline.toFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write visual baseline " + baseline, e);
+        }
+    }
+
+    private static Path writeDiffFile(String name, BufferedImage image) {
+        Path file = Paths.get(ConfigReader.getVisualDiffDir()).resolve(fileName(name) + ".png").toAbsolutePath();
+        try {
+            Files.createDirectories(file.getParent());
+            ImageIO.write(image, "png", file.toFile());
+            diffs.get().add(file);
+        } catch (IOException e) {
+            LoggerUtil.logError(logger, "Failed to write visual diff " + file, e);
+        }
+        return file;
+    }
+
+    private static BufferedImage decode(byte[] png) {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            if (image == null) {
+                throw new IllegalStateException("Screenshot is not a readable image");
+            }
+            return image;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] readBytes(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read visual baseline " + file, e);
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static String fileName(String name) {
+        return name.replaceAll("[^A-Za-z0-9-_]+", "_");
+    }
+
+    private static class BaselineHashes {
+        private final long lastModified;
+        private final String masks;
+        private final int width;
+        private final int height;
+        private final long[] hashes;
+
+        private BaselineHashes(long lastModified, String masks, int width, int height, long[] hashes) {
+            this.lastModified = lastModified;
+            this.masks = masks;
+            this.width = width;
+            this.height = height;
+            this.hashes = hashes;
+        }
+
+        private boolean matches(long lastModified, String masks) {
+            return this.lastModified == lastModified && this.masks.equals(masks);
+        }
+    }
+}
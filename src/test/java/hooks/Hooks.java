@@ -4,17 +4,27 @@ import io.cucumber.java.BeforeAll;
 import io.cucumber.java.AfterAll;
 import io.cucumber.java.Before;
 import io.cucumber.java.After;
+import io.cucumber.java.AfterStep;
 import io.cucumber.java.Scenario;
 import core.DriverFactory;
+import core.CommandMetrics;
 import core.ConfigReader;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
+import core.ScreenshotPipeline;
+import core.SiteReplayServer;
+import core.TestDataReader;
+import core.VisualCheckpoint;
 import org.openqa.selenium.WebDriver;
+import pages.LoginPage;
 import org.slf4j.Logger;
 import utils.LoggerUtil;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
 
 public class Hooks {
     private static final Logger logger = LoggerUtil.getLogger(Hooks.class);
@@ -22,19 +32,32 @@ public class Hooks {
     @BeforeAll
     public static void setupAll() {
         LoggerUtil.logTestSuite(logger, "Starting test suite execution");
-        DriverFactory.initDriver();
-        DriverFactory.getDriver().get(ConfigReader.getBaseUrl());
-        LoggerUtil.logBrowserAction(logger, "Browser initialized and navigated to: " + ConfigReader.getBaseUrl());
+        // Fails the run here on an unknown site.mode rather than in the first scenario
+        LoggerUtil.logConfig(logger, "Site Mode", ConfigReader.getSiteMode());
+        // Usually already started from TestRunner; covers runners that do not load it
+        DriverFactory.prewarmPool();
     }
 
     @Before
     public void beforeScenario(Scenario scenario) {
         LoggerUtil.logScenarioStart(logger, scenario.getName());
-        // Clear browser state before each scenario
-        WebDriver driver = DriverFactory.getDriver();
-        driver.manage().deleteAllCookies();
-        driver.navigate().to(ConfigReader.getBaseUrl());
-        LoggerUtil.logBrowserAction(logger, "Cleared cookies and navigated to base URL");
+        if (ConfigReader.isCommandMetricsEnabled()) {
+            CommandMetrics.start();
+        }
+        Map<String, String> row = TestDataReader.getRow();
+        if (!row.isEmpty()) {
+            String masked = LoggerUtil.maskTestData(row);
+            logger.info("Data row: {}", masked);
+            scenario.attach(masked, "text/plain", "Data row");
+        }
+        // The browser session is leased and reset by the first DriverFactory.getDriver() call
+    }
+
+    @Before(value = "@authenticated", order = 20000)
+    public void authenticate() {
+        // getDriver() leases and resets the session for this scenario
+        new LoginPage(DriverFactory.getDriver()).loginAs("default");
+        LoggerUtil.logBrowserAction(logger, "Authenticated as default user");
     }
 
     @After
@@ -43,32 +66,80 @@ public class Hooks {
         LoggerUtil.logScenarioEnd(logger, scenario.getName(), status);
         
         // Take screenshot if scenario failed and configuration allows
-        if (scenario.isFailed() && ConfigReader.isTakeScreenshotOnFailure()) {
+        String mode = ConfigReader.getScreenshotMode();
+        if (scenario.isFailed() && ConfigReader.isTakeScreenshotOnFailure()
+                && ("failure".equals(mode) || "element".equals(mode))) {
             logger.info("Scenario failed, capturing screenshot");
-            takeScreenshot(scenario);
+            takeScreenshot(scenario, "element".equals(mode));
+        }
+        ScreenshotPipeline.clearTrackedElement();
+        attachVisualDiffs(scenario);
+        attachCommandMetrics(scenario);
+        DriverFactory.releaseDriver();
+    }
+
+    @AfterStep
+    public void afterStep(Scenario scenario) {
+        if ("step".equals(ConfigReader.getScreenshotMode())) {
+            takeScreenshot(scenario, false);
         }
     }
 
     @AfterAll
     public static void tearDownAll() {
-        LoggerUtil.logTestSuite(logger, "Closing browser and ending test suite");
-        DriverFactory.quitDriver();
+        LoggerUtil.logTestSuite(logger, "Closing browsers and ending test suite");
+        DriverFactory.shutdownPool();
+        ScreenshotPipeline.shutdown(60);
+        SiteReplayServer.stop();
         LoggerUtil.logTestSuite(logger, "Test suite execution completed");
     }
 
-    private void takeScreenshot(Scenario scenario) {
+    private void takeScreenshot(Scenario scenario, boolean elementOnly) {
         try {
-            WebDriver driver = DriverFactory.getDriver();
-            if (driver instanceof TakesScreenshot) {
-                byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
-                scenario.attach(screenshot, "image/png", "Screenshot");
-                LoggerUtil.logScreenshot(logger, "Screenshot attached to scenario: " + scenario.getName());
+            // Only the file link goes into the report; the image is written in the background
+            WebDriver driver = DriverFactory.getLeasedDriver();
+            if (driver == null) {
+                // The scenario never used the browser
+                return;
+            }
+            Path file = ScreenshotPipeline.capture(driver, scenario.getName(), elementOnly);
+            if (file != null) {
+                scenario.attach(file.toUri().toString(), "text/uri-list", "Screenshot");
+                LoggerUtil.logScreenshot(logger, "Screenshot spooled to " + file);
             }
         } catch (Exception e) {
             LoggerUtil.logError(logger, "Failed to take screenshot for scenario: " + scenario.getName(), e);
         }
     }
 
+    private void attachVisualDiffs(Scenario scenario) {
+        // Only failed visual checkpoints leave images behind
+        for (Path diff : VisualCheckpoint.drainDiffs()) {
+            try {
+                scenario.attach(Files.readAllBytes(diff), "image/png", diff.getFileName().toString());
+            } catch (IOException e) {
+                LoggerUtil.logError(logger, "Failed to attach visual diff " + diff, e);
+            }
+        }
+    }
+
+    private void attachCommandMetrics(Scenario scenario) {
+        CommandMetrics metrics = CommandMetrics.stop();
+        if (metrics == null) {
+            return;
+        }
+        String json = metrics.toJson(scenario.getName());
+        scenario.attach(json, "application/json", "WebDriver command latency");
+        try {
+            Path dir = Files.createDirectories(Paths.get(ConfigReader.getCommandMetricsDir()));
+            String fileName = scenario.getName().replaceAll("[^A-Za-z0-9-_]+", "_") + "-" + scenario.getId().hashCode() + ".json";
+            Files.writeString(dir.resolve(fileName), json);
+        } catch (IOException e) {
+            LoggerUtil.logError(logger, "Failed to write command metrics for scenario: " + scenario.getName(), e);
+        }
+        logger.info("WebDriver commands: {} in {} ms", metrics.getCommandCount(), metrics.getTotalMicros() / 1_000);
+    }
+
     private static String getCurrentTimestamp() {
         return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
     }
@@ -1,25 +1,73 @@
 package pages;
 
 import core.ConfigReader;
+import core.PageReadiness;
+import core.ScreenshotPipeline;
+import core.StepTimer;
+import core.VisualCheckpoint;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.Keys;
 import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public class BasePage {
+    private static final int ABSENT = 0;
+    private static final int PRESENT = 1;
+    private static final int VISIBLE = 2;
+    private static final String PROBE_SCRIPT = JsLocator.FUNCTIONS
+            + "var elements = find(arguments[0], arguments[1]);"
+            + "if (elements.length === 0) { return 0; }"
+            + "return elements.some(visible) ? 2 : 1;";
+
+    private static final String BATCH_READ_SCRIPT = JsLocator.FUNCTIONS
+            + "var queries = arguments[0], properties = arguments[1], attributes = arguments[2];"
+            + "return queries.map(function (query) {"
+            + "  var el = find(query[0], query[1])[0];"
+            + "  if (!el) { return null; }"
+            + "  var state = {};"
+            + "  properties.forEach(function (property) {"
+            + "    switch (property) {"
+            + "      case 'TEXT': state[property] = visible(el) ? (el.innerText || '').trim() : ''; break;"
+            + "      case 'VALUE': state[property] = el.value === undefined ? el.getAttribute('value') : String(el.value); break;"
+            + "      case 'DISPLAYED': state[property] = visible(el); break;"
+            + "      case 'ENABLED': state[property] = !el.disabled; break;"
+            + "      case 'SELECTED_OPTION_TEXT':"
+            + "        var option = el.selectedOptions && el.selectedOptions[0];"
+            + "        state[property] = option ? option.text.trim() : null; break;"
+            + "    }"
+            + "  });"
+            + "  var values = {};"
+            + "  attributes.forEach(function (name) { values[name] = el.getAttribute(name); });"
+            + "  state.attributes = values;"
+            + "  return state;"
+            + "});";
+
     protected WebDriver driver;
     protected WebDriverWait wait;
     protected Actions actions;
     protected JavascriptExecutor jsExecutor;
+    private final Map<By, WebElement> elementCache = new HashMap<>();
 
     public BasePage(WebDriver driver) {
         this.driver = driver;
@@ -28,25 +76,38 @@ public class BasePage {
         this.jsExecutor = (JavascriptExecutor) driver;
     }
 
-    // Basic wait methods
+    // Basic wait methods: answered by the page as soon as the condition holds, see DomWaiter
     protected WebElement waitForElementToBeClickable(By locator) {
-        return wait.until(ExpectedConditions.elementToBeClickable(locator));
+        return (WebElement) DomWaiter.until(driver, locator, DomWaiter.Condition.CLICKABLE, null, explicitWait());
     }
 
     protected WebElement waitForElementToBeVisible(By locator) {
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        return (WebElement) DomWaiter.until(driver, locator, DomWaiter.Condition.VISIBLE, null, explicitWait());
     }
 
     protected WebElement waitForElementToBePresent(By locator) {
-        return wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+        return (WebElement) DomWaiter.until(driver, locator, DomWaiter.Condition.PRESENT, null, explicitWait());
+    }
+
+    protected WebElement waitForTextToBe(By locator, String text) {
+        return (WebElement) DomWaiter.until(driver, locator, DomWaiter.Condition.TEXT_EQUALS, text, explicitWait());
     }
 
     protected List<WebElement> waitForElementsToBeVisible(By locator) {
-        return wait.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(locator));
+        StepTimer.begin(StepTimer.Kind.WAIT, "ALL_VISIBLE");
+        try {
+            return wait.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(locator));
+        } finally {
+            StepTimer.end();
+        }
     }
 
     protected boolean waitForElementToBeInvisible(By locator) {
-        return wait.until(ExpectedConditions.invisibilityOfElementLocated(locator));
+        return (Boolean) DomWaiter.until(driver, locator, DomWaiter.Condition.GONE, null, explicitWait());
+    }
+
+    private static Duration explicitWait() {
+        return Duration.ofSeconds(ConfigReader.getExplicitWait());
     }
 
     // Element existence and visibility checks
@@ -68,9 +129,78 @@ public class BasePage {
         }
     }
 
+    // Non-blocking probes: answered in one round trip without the implicit wait
+    protected boolean isElementPresentNow(By locator) {
+        return probe(locator) >= PRESENT;
+    }
+
+    protected boolean isElementVisibleNow(By locator) {
+        return probe(locator) == VISIBLE;
+    }
+
+    protected boolean isElementPresent(By locator, Duration timeout) {
+        return pollProbe(locator, PRESENT, timeout);
+    }
+
+    protected boolean isElementVisible(By locator, Duration timeout) {
+        return pollProbe(locator, VISIBLE, timeout);
+    }
+
+    private boolean pollProbe(By locator, int expected, Duration timeout) {
+        StepTimer.begin(StepTimer.Kind.WAIT, expected == VISIBLE ? "probeVisible" : "probePresent");
+        try {
+            return pollProbeUntil(locator, expected, timeout);
+        } finally {
+            StepTimer.end();
+        }
+    }
+
+    private boolean pollProbeUntil(By locator, int expected, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long interval = ConfigReader.getProbePollInterval();
+        while (true) {
+            if (probe(locator) >= expected) {
+                return true;
+            }
+            long remainingMs = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMs <= 0) {
+                return false;
+            }
+            try {
+                Thread.sleep(Math.min(interval, remainingMs));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    private int probe(By locator) {
+        if (JsLocator.isSupported(locator)) {
+            Object state = jsExecutor.executeScript(PROBE_SCRIPT, JsLocator.args(locator));
+            return state instanceof Number ? ((Number) state).intValue() : ABSENT;
+        }
+        // Custom locators cannot run in the page, so look them up with the implicit wait switched off
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        try {
+            List<WebElement> elements = driver.findElements(locator);
+            if (elements.isEmpty()) {
+                return ABSENT;
+            }
+            for (WebElement element : elements) {
+                if (element.isDisplayed()) {
+                    return VISIBLE;
+                }
+            }
+            return PRESENT;
+        } finally {
+            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(ConfigReader.getImplicitWait()));
+        }
+    }
+
     protected boolean isElementClickable(By locator) {
         try {
-            wait.until(ExpectedConditions.elementToBeClickable(locator));
+            waitForElementToBeClickable(locator);
             return true;
         } catch (TimeoutException e) {
             return false;
@@ -90,58 +220,182 @@ public class BasePage {
         return getElementAttribute(locator, "value");
     }
 
+    /**
+     * Read properties of many elements in one executeScript round trip.
+     * Nothing is waited for: elements are read as they are at the moment of the call.
+     * @param locators Elements to read
+     * @param properties Properties to read from every element
+     * @param attributes Attribute names to read from every element
+     * @return State per locator, in the order of the given locators
+     */
+    protected Map<By, ElementState> readElements(Collection<By> locators, Set<ElementProperty> properties, String... attributes) {
+        Map<By, ElementState> states = new LinkedHashMap<>();
+        List<By> scripted = new ArrayList<>();
+        List<List<Object>> queries = new ArrayList<>();
+        for (By locator : locators) {
+            if (JsLocator.isSupported(locator)) {
+                scripted.add(locator);
+                queries.add(Arrays.asList(JsLocator.args(locator)));
+            }
+            states.put(locator, null);
+        }
+
+        if (!scripted.isEmpty()) {
+            List<String> propertyNames = new ArrayList<>();
+            for (ElementProperty property : properties) {
+                propertyNames.add(property.name());
+            }
+            List<?> results = (List<?>) jsExecutor.executeScript(BATCH_READ_SCRIPT, queries, propertyNames, Arrays.asList(attributes));
+            for (int i = 0; i < scripted.size(); i++) {
+                states.put(scripted.get(i), toElementState((Map<?, ?>) results.get(i)));
+            }
+        }
+
+        // Locators that cannot be resolved in the page are read one by one
+        for (Map.Entry<By, ElementState> entry : states.entrySet()) {
+            if (entry.getValue() == null) {
+                entry.setValue(readElement(entry.getKey(), properties, attributes));
+            }
+        }
+        return states;
+    }
+
+    protected Map<By, ElementState> readElements(Collection<By> locators, ElementProperty... properties) {
+        return readElements(locators, properties.length == 0 ? EnumSet.noneOf(ElementProperty.class) : EnumSet.copyOf(Arrays.asList(properties)));
+    }
+
+    private ElementState toElementState(Map<?, ?> result) {
+        if (result == null) {
+            return ElementState.absent();
+        }
+        Map<String, String> attributeValues = new LinkedHashMap<>();
+        Map<?, ?> rawAttributes = (Map<?, ?>) result.get("attributes");
+        for (Map.Entry<?, ?> attribute : rawAttributes.entrySet()) {
+            attributeValues.put(String.valueOf(attribute.getKey()), attribute.getValue() == null ? null : String.valueOf(attribute.getValue()));
+        }
+        return new ElementState(true,
+                (String) result.get(ElementProperty.TEXT.name()),
+                (String) result.get(ElementProperty.VALUE.name()),
+                Boolean.TRUE.equals(result.get(ElementProperty.DISPLAYED.name())),
+                Boolean.TRUE.equals(result.get(ElementProperty.ENABLED.name())),
+                (String) result.get(ElementProperty.SELECTED_OPTION_TEXT.name()),
+                attributeValues);
+    }
+
+    private ElementState readElement(By locator, Set<ElementProperty> properties, String... attributes) {
+        List<WebElement> elements = driver.findElements(locator);
+        if (elements.isEmpty()) {
+            return ElementState.absent();
+        }
+        WebElement element = elements.get(0);
+        Map<String, String> attributeValues = new LinkedHashMap<>();
+        for (String attribute : attributes) {
+            attributeValues.put(attribute, element.getAttribute(attribute));
+        }
+        String selectedOptionText = null;
+        if (properties.contains(ElementProperty.SELECTED_OPTION_TEXT) && "select".equalsIgnoreCase(element.getTagName())) {
+            List<WebElement> selected = new Select(element).getAllSelectedOptions();
+            selectedOptionText = selected.isEmpty() ? null : selected.get(0).getText();
+        }
+        return new ElementState(true,
+                properties.contains(ElementProperty.TEXT) ? element.getText() : null,
+                properties.contains(ElementProperty.VALUE) ? element.getAttribute("value") : null,
+                properties.contains(ElementProperty.DISPLAYED) && element.isDisplayed(),
+                properties.contains(ElementProperty.ENABLED) && element.isEnabled(),
+                selectedOptionText,
+                attributeValues);
+    }
+
+    // Element cache: resolved elements are reused until they go stale or the page navigates.
+    // A cached element is only used while it still meets the condition its resolver waits for
+    private void withElement(By locator, Function<By, WebElement> resolver, Predicate<WebElement> usable,
+                             Consumer<WebElement> action) {
+        WebElement cached = elementCache.get(locator);
+        if (cached != null) {
+            if (isUsable(cached, usable)) {
+                ScreenshotPipeline.trackElement(cached);
+                try {
+                    action.accept(cached);
+                    return;
+                } catch (StaleElementReferenceException e) {
+                    // The element was detached after the check; the action is repeated on the resolved one
+                }
+            }
+            // Resolve the element again through its wait
+            elementCache.remove(locator);
+        }
+        WebElement element = resolver.apply(locator);
+        elementCache.put(locator, element);
+        ScreenshotPipeline.trackElement(element);
+        action.accept(element);
+    }
+
+    private static boolean isInteractable(WebElement element) {
+        return element.isDisplayed() && element.isEnabled();
+    }
+
+    private static boolean isAttached(WebElement element) {
+        // Any call on a detached element throws StaleElementReferenceException
+        element.isEnabled();
+        return true;
+    }
+
+    private static boolean isUsable(WebElement element, Predicate<WebElement> usable) {
+        try {
+            return usable.test(element);
+        } catch (StaleElementReferenceException e) {
+            return false;
+        }
+    }
+
+    protected void clearElementCache() {
+        elementCache.clear();
+    }
+
     // Input operations
     protected void clearAndType(By locator, String text) {
-        WebElement element = waitForElementToBeClickable(locator);
-        element.clear();
-        element.sendKeys(text);
+        withElement(locator, this::waitForElementToBeClickable, BasePage::isInteractable, element -> {
+            element.clear();
+            element.sendKeys(text);
+        });
     }
 
     protected void typeText(By locator, String text) {
-        waitForElementToBeClickable(locator).sendKeys(text);
+        withElement(locator, this::waitForElementToBeClickable, BasePage::isInteractable, element -> element.sendKeys(text));
     }
 
     protected void pressKey(By locator, Keys key) {
-        waitForElementToBeClickable(locator).sendKeys(key);
+        withElement(locator, this::waitForElementToBeClickable, BasePage::isInteractable, element -> element.sendKeys(key));
     }
 
     // Click operations
     protected void click(By locator) {
-        waitForElementToBeClickable(locator).click();
+        withElement(locator, this::waitForElementToBeClickable, BasePage::isInteractable, WebElement::click);
     }
 
     protected void clickWithJS(By locator) {
-        WebElement element = waitForElementToBePresent(locator);
-        jsExecutor.executeScript("arguments[0].click();", element);
+        withElement(locator, this::waitForElementToBePresent, BasePage::isAttached, element -> jsExecutor.executeScript("arguments[0].click();", element));
     }
 
     protected void doubleClick(By locator) {
-        WebElement element = waitForElementToBeClickable(locator);
-        actions.doubleClick(element).perform();
+        withElement(locator, this::waitForElementToBeClickable, BasePage::isInteractable, element -> actions.doubleClick(element).perform());
     }
 
     protected void rightClick(By locator) {
-        WebElement element = waitForElementToBeClickable(locator);
-        actions.contextClick(element).perform();
+        withElement(locator, this::waitForElementToBeClickable, BasePage::isInteractable, element -> actions.contextClick(element).perform());
     }
 
     // Dropdown operations
     protected void selectByVisibleText(By locator, String text) {
-        WebElement dropdown = waitForElementToBeClickable(locator);
-        Select select = new Select(dropdown);
-        select.selectByVisibleText(text);
+        withElement(locator, this::waitForElementToBeClickable, BasePage::isInteractable, dropdown -> new Select(dropdown).selectByVisibleText(text));
     }
 
     protected void selectByValue(By locator, String value) {
-        WebElement dropdown = waitForElementToBeClickable(locator);
-        Select select = new Select(dropdown);
-        select.selectByValue(value);
+        withElement(locator, this::waitForElementToBeClickable, BasePage::isInteractable, dropdown -> new Select(dropdown).selectByValue(value));
     }
 
     protected void selectByIndex(By locator, int index) {
-        WebElement dropdown = waitForElementToBeClickable(locator);
-        Select select = new Select(dropdown);
-        select.selectByIndex(index);
+        withElement(locator, this::waitForElementToBeClickable, BasePage::isInteractable, dropdown -> new Select(dropdown).selectByIndex(index));
     }
 
     protected String getSelectedOptionText(By locator) {
@@ -158,8 +412,7 @@ public class BasePage {
 
     // Scroll operations
     protected void scrollToElement(By locator) {
-        WebElement element = waitForElementToBePresent(locator);
-        jsExecutor.executeScript("arguments[0].scrollIntoView(true);", element);
+        withElement(locator, this::waitForElementToBePresent, BasePage::isAttached, element -> jsExecutor.executeScript("arguments[0].scrollIntoView(true);", element));
     }
 
     protected void scrollToTop() {
@@ -176,8 +429,7 @@ public class BasePage {
 
     // Mouse operations
     protected void hoverOverElement(By locator) {
-        WebElement element = waitForElementToBeVisible(locator);
-        actions.moveToElement(element).perform();
+        withElement(locator, this::waitForElementToBeVisible, WebElement::isDisplayed, element -> actions.moveToElement(element).perform());
     }
 
     protected void dragAndDrop(By sourceLocator, By targetLocator) {
@@ -193,28 +445,32 @@ public class BasePage {
 
     protected void highlightElement(By locator) {
         if (ConfigReader.isHighlightElements()) {
-            WebElement element = waitForElementToBePresent(locator);
-            String originalStyle = element.getAttribute("style");
-            jsExecutor.executeScript("arguments[0].setAttribute('style', 'border: 2px solid red; background-color: yellow;');", element);
-            try {
-                Thread.sleep(500);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-            jsExecutor.executeScript("arguments[0].setAttribute('style', '" + originalStyle + "');", element);
+            withElement(locator, this::waitForElementToBePresent, BasePage::isAttached, element -> {
+                String originalStyle = element.getAttribute("style");
+                jsExecutor.executeScript("arguments[0].setAttribute('style', 'border: 2px solid red; background-color: yellow;');", element);
+                try {
+                    StepTimer.sleep("highlightElement", 500);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                jsExecutor.executeScript("arguments[0].setAttribute('style', '" + originalStyle + "');", element);
+            });
         }
     }
 
     // Page operations
     protected void refreshPage() {
+        clearElementCache();
         driver.navigate().refresh();
     }
 
     protected void navigateBack() {
+        clearElementCache();
         driver.navigate().back();
     }
 
     protected void navigateForward() {
+        clearElementCache();
         driver.navigate().forward();
     }
 
@@ -228,21 +484,40 @@ public class BasePage {
 
     protected void switchToFrame(By frameLocator) {
         WebElement frame = waitForElementToBePresent(frameLocator);
+        clearElementCache();
         driver.switchTo().frame(frame);
     }
 
     protected void switchToDefaultContent() {
+        clearElementCache();
         driver.switchTo().defaultContent();
     }
 
+    // Visual checkpoints
+    protected void verifyPageVisual(String name, By... ignoredLocators) {
+        VisualCheckpoint.verify(driver, null, name, findAll(ignoredLocators));
+    }
+
+    protected void verifyElementVisual(By locator, String name, By... ignoredLocators) {
+        VisualCheckpoint.verify(driver, waitForElementToBeVisible(locator), name, findAll(ignoredLocators));
+    }
+
+    private List<WebElement> findAll(By... locators) {
+        List<WebElement> elements = new ArrayList<>();
+        for (By locator : locators) {
+            elements.addAll(driver.findElements(locator));
+        }
+        return elements;
+    }
+
     // Wait utilities
     protected void waitForPageToLoad() {
-        wait.until(webDriver -> jsExecutor.executeScript("return document.readyState").equals("complete"));
+        PageReadiness.waitUntilReady(driver, Duration.ofSeconds(ConfigReader.getExplicitWait()));
     }
 
     protected void waitForSeconds(int seconds) {
         try {
-            Thread.sleep(seconds * 1000L);
+            StepTimer.sleep("waitForSeconds", seconds * 1000L);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
@@ -0,0 +1,166 @@
+package pages;
+
+import core.ConfigReader;
+import core.PageReadiness;
+import core.StepTimer;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+import java.time.Duration;
+
+/**
+ * Waits for element conditions from inside the page. One async script checks the condition,
+ * re-checks it on every DOM mutation and on a short in-page timer for style-only changes,
+ * and returns as soon as it holds, so a wait costs one round trip and reacts within milliseconds.
+ * Locators that cannot run in the page and drivers without async script support
+ * fall back to polling that starts fast and backs off.
+ */
+final class DomWaiter {
+
+    enum Condition { PRESENT, VISIBLE, CLICKABLE, TEXT_EQUALS, GONE }
+
+    private static final String WAIT_SCRIPT = JsLocator.FUNCTIONS
+            + "var done = arguments[arguments.length - 1];"
+            + "var using = arguments[0], value = arguments[1], condition = arguments[2], text = arguments[3];"
+            + "function check() {"
+            + "  var el = find(using, value)[0];"
+            + "  switch (condition) {"
+            + "    case 'PRESENT': return el || null;"
+            + "    case 'VISIBLE': return el && visible(el) ? el : null;"
+            + "    case 'CLICKABLE': return el && visible(el) && !el.disabled ? el : null;"
+            + "    case 'TEXT_EQUALS': return el && visible(el) && (el.innerText || '').trim() === text ? el : null;"
+            + "    case 'GONE': return !el || !visible(el) ? true : null;"
+            + "  }"
+            + "}"
+            + "var result = check();"
+            + "if (result !== null) { done(result); } else {"
+            + "  var finished = false, observer, timer, deadline;"
+            + "  var finish = function (value) {"
+            + "    if (finished) { return; }"
+            + "    finished = true; observer.disconnect(); clearInterval(timer); clearTimeout(deadline); done(value); };"
+            + "  var recheck = function () { var value = check(); if (value !== null) { finish(value); } };"
+            + "  observer = new MutationObserver(recheck);"
+            + "  observer.observe(document, { childList: true, subtree: true, attributes: true, characterData: true });"
+            + "  timer = setInterval(recheck, 50);"
+            + "  deadline = setTimeout(function () { finish(null); }, arguments[4]);"
+            + "}";
+
+    private DomWaiter() {
+    }
+
+    /**
+     * Wait for a condition on the first element matching a locator
+     * @param driver Driver of the page
+     * @param locator Element locator
+     * @param condition Condition to wait for
+     * @param text Expected text for TEXT_EQUALS, ignored otherwise
+     * @param timeout Maximum time to wait
+     * @return The element, or Boolean.TRUE for GONE
+     * @throws TimeoutException if the condition does not hold in time
+     */
+    static Object until(WebDriver driver, By locator, Condition condition, String text, Duration timeout) {
+        StepTimer.begin(StepTimer.Kind.WAIT, condition.name());
+        try {
+            return waitUntil(driver, locator, condition, text, timeout);
+        } finally {
+            StepTimer.end();
+        }
+    }
+
+    private static Object waitUntil(WebDriver driver, By locator, Condition condition, String text, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        if (ConfigReader.isObserverWaits() && JsLocator.isSupported(locator) && driver instanceof JavascriptExecutor) {
+            // Keep each script call inside the driver's script timeout
+            long maxCallMillis = Math.max(1_000, ConfigReader.getScriptTimeout() * 1_000L - 1_000);
+            Object[] target = JsLocator.args(locator);
+            try {
+                while (true) {
+                    long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+                    if (remainingMillis <= 0) {
+                        throw timeout(locator, condition, timeout);
+                    }
+                    Object result = executeWait(driver, target, condition, text, Math.min(remainingMillis, maxCallMillis));
+                    if (result != null) {
+                        return result;
+                    }
+                }
+            } catch (UnsupportedCommandException e) {
+                // Fall through to polling for drivers without async scripts
+            }
+        }
+        return poll(driver, locator, condition, text, deadline, timeout);
+    }
+
+    private static Object executeWait(WebDriver driver, Object[] target, Condition condition, String text, long millis) {
+        try {
+            return ((JavascriptExecutor) driver).executeAsyncScript(WAIT_SCRIPT,
+                    target[0], target[1], condition.name(), text == null ? "" : text, millis);
+        } catch (ScriptTimeoutException e) {
+            return null;
+        } catch (JavascriptException e) {
+            if (!PageReadiness.isDocumentReplaced(e)) {
+                // e.g. an invalid selector, which waiting longer cannot fix
+                throw e;
+            }
+            // The document was replaced while the script waited; the next call runs on the new one
+            return null;
+        }
+    }
+
+    private static Object poll(WebDriver driver, By locator, Condition condition, String text, long deadline, Duration timeout) {
+        ExpectedCondition<?> expected = expectedCondition(locator, condition, text);
+        long interval = ConfigReader.getWaitPollMin();
+        long maxInterval = ConfigReader.getWaitPollMax();
+        while (true) {
+            try {
+                Object result = expected.apply(driver);
+                if (result != null && !Boolean.FALSE.equals(result)) {
+                    return condition == Condition.TEXT_EQUALS ? driver.findElement(locator) : result;
+                }
+            } catch (WebDriverException e) {
+                // Treated like an unmet condition, as WebDriverWait does for lookups
+            }
+            long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMillis <= 0) {
+                throw timeout(locator, condition, timeout);
+            }
+            try {
+                Thread.sleep(Math.min(interval, remainingMillis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TimeoutException("Interrupted while waiting for " + locator, e);
+            }
+            interval = Math.min(interval * 2, maxInterval);
+        }
+    }
+
+    private static ExpectedCondition<?> expectedCondition(By locator, Condition condition, String text) {
+        switch (condition) {
+            case PRESENT:
+                return ExpectedConditions.presenceOfElementLocated(locator);
+            case VISIBLE:
+                return ExpectedConditions.visibilityOfElementLocated(locator);
+            case CLICKABLE:
+                return ExpectedConditions.elementToBeClickable(locator);
+            case TEXT_EQUALS:
+                return ExpectedConditions.textToBe(locator, text);
+            case GONE:
+            default:
+                return ExpectedConditions.invisibilityOfElementLocated(locator);
+        }
+    }
+
+    private static TimeoutException timeout(By locator, Condition condition, Duration timeout) {
+        return new TimeoutException("Expected condition failed: waiting for " + locator + " to be "
+                + condition.name().toLowerCase().replace('_', ' ') + " (tried for " + timeout.getSeconds() + " second(s))");
+    }
+}
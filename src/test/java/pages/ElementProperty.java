@@ -0,0 +1,12 @@
+package pages;
+
+/**
+ * Element properties that can be read in bulk with BasePage.readElements.
+ */
+public enum ElementProperty {
+    TEXT,
+    VALUE,
+    DISPLAYED,
+    ENABLED,
+    SELECTED_OPTION_TEXT
+}
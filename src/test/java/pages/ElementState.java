@@ -0,0 +1,73 @@
+package pages;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Snapshot of one element's properties returned by BasePage.readElements.
+ * Properties that were not requested are null (or false for the boolean checks).
+ */
+public final class ElementState {
+    private static final ElementState ABSENT = new ElementState(false, null, null, false, false, null, Collections.emptyMap());
+
+    private final boolean present;
+    private final String text;
+    private final String value;
+    private final boolean displayed;
+    private final boolean enabled;
+    private final String selectedOptionText;
+    private final Map<String, String> attributes;
+
+    ElementState(boolean present, String text, String value, boolean displayed, boolean enabled,
+                 String selectedOptionText, Map<String, String> attributes) {
+        this.present = present;
+        this.text = text;
+        this.value = value;
+        this.displayed = displayed;
+        this.enabled = enabled;
+        this.selectedOptionText = selectedOptionText;
+        this.attributes = Collections.unmodifiableMap(attributes);
+    }
+
+    static ElementState absent() {
+        return ABSENT;
+    }
+
+    public boolean isPresent() {
+        return present;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public boolean isDisplayed() {
+        return displayed;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getSelectedOptionText() {
+        return selectedOptionText;
+    }
+
+    public String getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public String toString() {
+        if (!present) {
+            return "ElementState{absent}";
+        }
+        return "ElementState{text=" + text + ", value=" + value + ", displayed=" + displayed
+                + ", enabled=" + enabled + ", selectedOptionText=" + selectedOptionText
+                + ", attributes=" + attributes + "}";
+    }
+}
@@ -0,0 +1,72 @@
+package pages;
+
+import org.openqa.selenium.By;
+
+import java.util.Set;
+
+/**
+ * Translates Selenium locators into in-page JavaScript so element lookups can be combined
+ * with other work in a single executeScript round trip.
+ * Scripts built on {@link #FUNCTIONS} receive the locator as two arguments from {@link #args(By)}.
+ */
+final class JsLocator {
+    // Strategies find() implements; others, e.g. RelativeBy, go through findElement
+    private static final Set<String> STRATEGIES = Set.of("id", "name", "class name", "tag name",
+            "css selector", "xpath", "link text", "partial link text");
+
+    /** Defines find(using, value) returning an array of elements and visible(element) */
+    static final String FUNCTIONS =
+            "function find(using, value) {"
+            + "  var nodes;"
+            + "  switch (using) {"
+            + "    case 'id': nodes = document.querySelectorAll('#' + CSS.escape(value)); break;"
+            + "    case 'name': nodes = document.querySelectorAll('[name=\"' + CSS.escape(value) + '\"]'); break;"
+            + "    case 'class name': nodes = document.querySelectorAll('.' + CSS.escape(value)); break;"
+            + "    case 'tag name': nodes = document.getElementsByTagName(value); break;"
+            + "    case 'xpath':"
+            + "      var snapshot = document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+            + "      var found = [];"
+            + "      for (var i = 0; i < snapshot.snapshotLength; i++) { found.push(snapshot.snapshotItem(i)); }"
+            + "      return found;"
+            + "    case 'link text':"
+            + "    case 'partial link text':"
+            + "      return Array.prototype.filter.call(document.getElementsByTagName('a'), function (a) {"
+            + "        var text = (a.innerText || '').trim();"
+            + "        return using === 'link text' ? text === value : text.indexOf(value) !== -1; });"
+            + "    case 'css selector': nodes = document.querySelectorAll(value); break;"
+            + "    default: throw new Error('Unsupported locator strategy: ' + using);"
+            + "  }"
+            + "  return Array.prototype.slice.call(nodes);"
+            + "}"
+            + "function visible(el) {"
+            + "  if (!el || !el.isConnected) { return false; }"
+            + "  var style = window.getComputedStyle(el);"
+            + "  if (style.display === 'none' || style.visibility === 'hidden' || style.visibility === 'collapse'"
+            + "      || parseFloat(style.opacity) === 0) { return false; }"
+            + "  var rects = el.getClientRects();"
+            + "  return rects.length > 0 && (rects[0].width > 0 || rects[0].height > 0);"
+            + "}";
+
+    private JsLocator() {
+    }
+
+    /**
+     * Check whether a locator can be resolved in the page instead of through findElement
+     * @param locator Selenium locator
+     * @return true for the standard id, name, class, tag, css, xpath and link text locators
+     */
+    static boolean isSupported(By locator) {
+        return locator instanceof By.Remotable
+                && STRATEGIES.contains(((By.Remotable) locator).getRemoteParameters().using());
+    }
+
+    /**
+     * Script arguments describing a locator
+     * @param locator Selenium locator, see {@link #isSupported(By)}
+     * @return Strategy name and value, in that order
+     */
+    static Object[] args(By locator) {
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        return new Object[]{parameters.using(), String.valueOf(parameters.value())};
+    }
+}
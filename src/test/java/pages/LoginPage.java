@@ -1,5 +1,7 @@
 package pages;
 
+import core.SessionSnapshotCache;
+import core.TestDataReader;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.By;
 import org.slf4j.Logger;
@@ -12,6 +14,7 @@ public class LoginPage extends BasePage {
     private final By passwordInput = By.id("password");
     private final By loginButton = By.id("login-button");
     private final By errorMessage = By.cssSelector("[data-test='error']");
+    private final By loginBox = By.cssSelector(".login-box");
 
     public LoginPage(WebDriver driver) {
         super(driver);
@@ -19,26 +22,45 @@ public class LoginPage extends BasePage {
     }
 
     public void enterUsername(String username) {
-        LoggerUtil.logElementAction(logger, "Entering username", usernameInput.toString());
+        LoggerUtil.logElementAction(logger, "Entering username", usernameInput);
         highlightElement(usernameInput);
         clearAndType(usernameInput, username);
         logger.debug("Username entered successfully");
     }
 
     public void enterPassword(String password) {
-        LoggerUtil.logElementAction(logger, "Entering password", passwordInput.toString());
+        LoggerUtil.logElementAction(logger, "Entering password", passwordInput);
         highlightElement(passwordInput);
         clearAndType(passwordInput, password);
         logger.debug("Password entered successfully");
     }
 
     public void clickLogin() {
-        LoggerUtil.logElementAction(logger, "Clicking login button", loginButton.toString());
+        LoggerUtil.logElementAction(logger, "Clicking login button", loginButton);
         highlightElement(loginButton);
         click(loginButton);
+        waitForPageToLoad();
         logger.debug("Login button clicked successfully");
     }
 
+    public void login(String username, String password) {
+        enterUsername(username);
+        enterPassword(password);
+        clickLogin();
+    }
+
+    /**
+     * Log in with a credential set from testdata.properties, reusing a cached session when available
+     * @param credentialSet Set name, "default" for login.username and login.password
+     */
+    public void loginAs(String credentialSet) {
+        String username = TestDataReader.getLoginUsername(credentialSet);
+        String password = TestDataReader.getLoginPassword(credentialSet);
+        SessionSnapshotCache.restoreOrLogin(driver, credentialSet, TestDataReader.getExpectedLoginUrl(),
+                () -> login(username, password));
+        clearElementCache();
+    }
+
     public String getCurrentUrl() {
         String url = super.getCurrentUrl();
         logger.debug("Current URL retrieved: {}", url);
@@ -62,14 +84,24 @@ public class LoginPage extends BasePage {
     }
     
     public boolean isErrorMessageDisplayed() {
-        LoggerUtil.logElementAction(logger, "Checking if error message is displayed", errorMessage.toString());
-        boolean isDisplayed = isElementVisible(errorMessage);
+        LoggerUtil.logElementAction(logger, "Checking if error message is displayed", errorMessage);
+        boolean isDisplayed = isElementVisibleNow(errorMessage);
         logger.debug("Error message visibility: {}", isDisplayed);
         return isDisplayed;
     }
     
+    public void verifyPageMatchesBaseline(String name) {
+        logger.debug("Comparing login page with visual baseline {}", name);
+        verifyPageVisual(name);
+    }
+
+    public void verifyLoginBoxMatchesBaseline(String name) {
+        LoggerUtil.logElementAction(logger, "Comparing login box with visual baseline " + name, loginBox);
+        verifyElementVisual(loginBox, name);
+    }
+
     public String getErrorMessage() {
-        LoggerUtil.logElementAction(logger, "Getting error message text", errorMessage.toString());
+        LoggerUtil.logElementAction(logger, "Getting error message text", errorMessage);
         String message = getElementText(errorMessage);
         logger.debug("Error message text: {}", message);
         return message;
@@ -0,0 +1,141 @@
+package runners;
+
+import core.ConfigReader;
+import core.DataSource;
+import core.DriverFactory;
+import core.TestDataReader;
+import io.cucumber.testng.AbstractTestNGCucumberTests;
+import io.cucumber.testng.FeatureWrapper;
+import io.cucumber.testng.PickleWrapper;
+import org.slf4j.Logger;
+import org.testng.SkipException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import utils.LoggerUtil;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scenario execution shared by the runners; subclasses only choose features, glue and report plugins.
+ * Scenarios tagged @data:&lt;file&gt; run once per dataset row. Their rows are streamed from the dataset
+ * in data.partitions slices per shard instead of being expanded into one data provider row each.
+ * Scenarios run on the data provider threads of TestNG, -Dscenario.threads of them (1 by default);
+ * a scenario leases a browser from the pool only when it first uses one, so the number of threads
+ * and pool.maxSize are chosen independently.
+ */
+public abstract class AbstractCucumberRunner extends AbstractTestNGCucumberTests {
+    private static final Logger logger = LoggerUtil.getLogger(AbstractCucumberRunner.class);
+    private static final String DATA_TAG = "@data:";
+
+    static {
+        // Browsers launch while TestNG and Cucumber scan glue and features
+        DriverFactory.prewarmPool();
+    }
+
+    @Override
+    @Test(groups = "cucumber", description = "Runs Cucumber Scenarios", dataProvider = "scenarios",
+            retryAnalyzer = ScenarioRetryAnalyzer.class)
+    public void runScenario(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper) {
+        if (pickleWrapper instanceof DataPartitionPickle) {
+            runPartition((DataPartitionPickle) pickleWrapper, featureWrapper);
+            return;
+        }
+        LoggerUtil.bindScenario(pickleWrapper.getPickle().getName());
+        try {
+            super.runScenario(pickleWrapper, featureWrapper);
+        } finally {
+            LoggerUtil.clearScenario();
+        }
+    }
+
+    @Override
+    @DataProvider(parallel = true)
+    public Object[][] scenarios() {
+        List<Object[]> plain = new ArrayList<>();
+        List<Object[]> dataDriven = new ArrayList<>();
+        for (Object[] row : super.scenarios()) {
+            (dataset((PickleWrapper) row[0]) != null ? dataDriven : plain).add(row);
+        }
+        List<Object[]> rows = new ArrayList<>();
+
+        // Every shard takes its own slices of every dataset, so rows are spread evenly across shards.
+        // Partitions run many rows each, so they go first and do not hold up the end of a parallel run.
+        int partitions = Math.max(1, ConfigReader.getDataPartitions());
+        int shards = Math.max(1, ConfigReader.getShardCount());
+        int shard = shards > 1 ? ConfigReader.getShardIndex() : 0;
+        for (Object[] row : dataDriven) {
+            PickleWrapper pickle = (PickleWrapper) row[0];
+            for (int partition = 0; partition < partitions; partition++) {
+                rows.add(new Object[]{new DataPartitionPickle(pickle, dataset(pickle),
+                        shard * partitions + partition, shards * partitions), row[1]});
+            }
+        }
+        rows.addAll(List.of(ShardPlanner.select(plain.toArray(new Object[0][]))));
+        return rows.toArray(new Object[0][]);
+    }
+
+    private void runPartition(DataPartitionPickle partition, FeatureWrapper featureWrapper) {
+        int maxAttempts = Math.max(1, ConfigReader.getRetryMaxAttempts());
+        Iterator<Map<String, String>> rows = DataSource.open(partition.getDataset())
+                .rows(partition.getSlice(), partition.getSlices());
+        int count = 0;
+        List<String> failed = new ArrayList<>();
+        Throwable firstError = null;
+        while (rows.hasNext()) {
+            Map<String, String> row = rows.next();
+            String masked = LoggerUtil.maskTestData(row);
+            count++;
+            LoggerUtil.bindScenario(partition.getPickle().getName() + " #" + count);
+            Throwable error = null;
+            // Rows are retried here; rerunning the whole partition would repeat rows that passed
+            for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+                error = runRow(partition, featureWrapper, row);
+                if (error == null) {
+                    break;
+                }
+                if (attempt < maxAttempts) {
+                    LoggerUtil.logWarning(logger, "Attempt {} of row {} failed, rerunning", attempt, masked);
+                }
+            }
+            if (error != null) {
+                failed.add(masked);
+                if (firstError == null) {
+                    firstError = error;
+                }
+            }
+        }
+        LoggerUtil.clearScenario();
+        logger.info("{}: {} rows, {} failed", partition, count, failed.size());
+        if (firstError != null) {
+            throw new AssertionError(failed.size() + " of " + count + " rows of " + partition + " failed: "
+                    + String.join(", ", failed), firstError);
+        }
+    }
+
+    private Throwable runRow(DataPartitionPickle partition, FeatureWrapper featureWrapper, Map<String, String> row) {
+        TestDataReader.bindRow(row);
+        try {
+            super.runScenario(partition, featureWrapper);
+            return null;
+        } catch (SkipException e) {
+            LoggerUtil.logWarning(logger, "Row {} was skipped: {}", LoggerUtil.maskTestData(row), e.getMessage());
+            return null;
+        } catch (Throwable t) {
+            return t;
+        } finally {
+            TestDataReader.clearRow();
+        }
+    }
+
+    private static String dataset(PickleWrapper pickle) {
+        for (String tag : pickle.getPickle().getTags()) {
+            if (tag.startsWith(DATA_TAG) && tag.length() > DATA_TAG.length()) {
+                return tag.substring(DATA_TAG.length());
+            }
+        }
+        return null;
+    }
+}
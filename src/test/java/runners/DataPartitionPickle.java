@@ -0,0 +1,44 @@
+package runners;
+
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+
+/**
+ * Data provider parameter standing for one slice of the dataset of a scenario tagged @data:&lt;file&gt;.
+ * The scenario runs once per row of the slice within a single TestNG invocation.
+ */
+public class DataPartitionPickle implements PickleWrapper {
+    private final PickleWrapper delegate;
+    private final String dataset;
+    private final int slice;
+    private final int slices;
+
+    DataPartitionPickle(PickleWrapper delegate, String dataset, int slice, int slices) {
+        this.delegate = delegate;
+        this.dataset = dataset;
+        this.slice = slice;
+        this.slices = slices;
+    }
+
+    @Override
+    public Pickle getPickle() {
+        return delegate.getPickle();
+    }
+
+    public String getDataset() {
+        return dataset;
+    }
+
+    public int getSlice() {
+        return slice;
+    }
+
+    public int getSlices() {
+        return slices;
+    }
+
+    @Override
+    public String toString() {
+        return "\"" + getPickle().getName() + "\" [" + dataset + " " + (slice + 1) + "/" + slices + "]";
+    }
+}
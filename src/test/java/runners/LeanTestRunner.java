@@ -0,0 +1,22 @@
+package runners;
+
+import io.cucumber.testng.CucumberOptions;
+
+/**
+ * Runs the suite with a single report plugin that appends Cucumber messages to an NDJSON file
+ * as events happen, so reporting keeps no per-step state in the test JVM.
+ * ReportGenerator turns the file into the HTML, JSON and Allure reports of TestRunner afterwards.
+ */
+@CucumberOptions(
+        features = "src/test/resources/features",
+        glue = {"steps", "hooks"},
+        // Visual checkpoints need baselines recorded for the browser and viewport, see README
+        tags = "not @visual",
+        plugin = {
+                "summary",
+                "message:target/cucumber-messages.ndjson"
+        },
+        monochrome = true
+)
+public class LeanTestRunner extends AbstractCucumberRunner {
+}
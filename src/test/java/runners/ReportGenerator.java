@@ -0,0 +1,630 @@
+package runners;
+
+import io.cucumber.htmlformatter.MessagesToHtmlWriter;
+import io.cucumber.messages.types.Envelope;
+import io.cucumber.messages.types.TestRunStarted;
+import io.cucumber.messages.types.Timestamp;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Builds the reports of a LeanTestRunner run from its Cucumber message stream.
+ * Usage: ReportGenerator [messagesFile] [outputDir]
+ * Defaults to target/cucumber-messages.ndjson and target, and writes cucumber-html-report.html,
+ * cucumber-report.json and allure-results there, as TestRunner does. The stream is read once:
+ * messages are copied into the HTML report as they are, and the state of a test case is
+ * dropped as soon as its JSON element and Allure result are built.
+ */
+public class ReportGenerator {
+    private static final String DEFAULT_MESSAGES = "target/cucumber-messages.ndjson";
+    private static final String DEFAULT_OUTPUT = "target";
+    // The HTML writer only hands this to our serializer, which writes the current line instead
+    private static final Envelope RAW_MESSAGE = Envelope.of(new TestRunStarted(new Timestamp(0L, 0L)));
+
+    private final Json json = new Json();
+    private final Path allureResults;
+
+    private final Map<String, Map<String, Object>> features = new LinkedHashMap<>();
+    private final Map<String, Map<String, Object>> featureOfNode = new HashMap<>();
+    private final Map<String, Map<String, Object>> scenarios = new HashMap<>();
+    private final Map<String, Map<String, Object>> steps = new HashMap<>();
+    private final Map<String, Map<String, Object>> backgroundOfStep = new HashMap<>();
+    private final Map<String, String> exampleIds = new HashMap<>();
+    private final Map<String, Long> exampleLines = new HashMap<>();
+
+    private final Map<String, Map<String, Object>> pickles = new HashMap<>();
+    private final Map<String, Map<String, Object>> pickleSteps = new HashMap<>();
+    private final Map<String, String> locations = new HashMap<>();
+    private final Map<String, Map<String, Object>> testCases = new HashMap<>();
+    private final Map<String, TestCaseRun> runs = new HashMap<>();
+    private final Set<String> stepHookIds = new HashSet<>();
+    private int results;
+
+    private ReportGenerator(Path allureResults) {
+        this.allureResults = allureResults;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path messages = Paths.get(args.length > 0 ? args[0] : DEFAULT_MESSAGES);
+        Path output = Paths.get(args.length > 1 ? args[1] : DEFAULT_OUTPUT);
+        if (!Files.exists(messages)) {
+            System.err.println("No message stream at " + messages + "; run the suite with -Plean-report first");
+            System.exit(2);
+        }
+        Files.createDirectories(output.resolve("allure-results"));
+
+        ReportGenerator generator = new ReportGenerator(output.resolve("allure-results"));
+        String[] line = new String[1];
+        try (BufferedReader reader = Files.newBufferedReader(messages);
+             OutputStream html = Files.newOutputStream(output.resolve("cucumber-html-report.html"));
+             MessagesToHtmlWriter htmlWriter = new MessagesToHtmlWriter(html, (writer, envelope) -> writer.write(line[0]))) {
+            while ((line[0] = reader.readLine()) != null) {
+                if (line[0].isBlank()) {
+                    continue;
+                }
+                htmlWriter.write(RAW_MESSAGE);
+                generator.accept(generator.json.toType(line[0], Json.MAP_TYPE));
+            }
+        }
+
+        List<Map<String, Object>> report = new ArrayList<>();
+        for (Map<String, Object> feature : generator.features.values()) {
+            if (!list(feature.get("elements")).isEmpty()) {
+                report.add(feature);
+            }
+        }
+        try (Writer writer = Files.newBufferedWriter(output.resolve("cucumber-report.json"));
+             JsonOutput out = generator.json.newOutput(writer)) {
+            out.write(report);
+        }
+        System.out.printf("Generated reports for %d features and %d test cases from %s into %s%n",
+                report.size(), generator.results, messages, output.toAbsolutePath());
+    }
+
+    private void accept(Map<String, Object> envelope) throws IOException {
+        if (envelope.containsKey("gherkinDocument")) {
+            gherkinDocument(map(envelope.get("gherkinDocument")));
+        } else if (envelope.containsKey("pickle")) {
+            Map<String, Object> pickle = map(envelope.get("pickle"));
+            pickles.put(str(pickle.get("id")), pickle);
+            for (Object step : list(pickle.get("steps"))) {
+                pickleSteps.put(str(map(step).get("id")), map(step));
+            }
+        } else if (envelope.containsKey("stepDefinition")) {
+            Map<String, Object> definition = map(envelope.get("stepDefinition"));
+            locations.put(str(definition.get("id")), location(map(definition.get("sourceReference"))));
+        } else if (envelope.containsKey("hook")) {
+            Map<String, Object> hook = map(envelope.get("hook"));
+            locations.put(str(hook.get("id")), location(map(hook.get("sourceReference"))));
+        } else if (envelope.containsKey("testCase")) {
+            Map<String, Object> testCase = map(envelope.get("testCase"));
+            testCases.put(str(testCase.get("id")), testCase);
+        } else if (envelope.containsKey("testCaseStarted")) {
+            Map<String, Object> started = map(envelope.get("testCaseStarted"));
+            runs.put(str(started.get("id")), new TestCaseRun(testCases.get(str(started.get("testCaseId"))),
+                    map(started.get("timestamp"))));
+        } else if (envelope.containsKey("testStepStarted")) {
+            Map<String, Object> started = map(envelope.get("testStepStarted"));
+            TestCaseRun run = runs.get(str(started.get("testCaseStartedId")));
+            if (run != null) {
+                run.stepStarts.put(str(started.get("testStepId")), millis(started.get("timestamp")));
+            }
+        } else if (envelope.containsKey("testStepFinished")) {
+            Map<String, Object> finished = map(envelope.get("testStepFinished"));
+            TestCaseRun run = runs.get(str(finished.get("testCaseStartedId")));
+            if (run != null) {
+                Map<String, Object> result = new HashMap<>(map(finished.get("testStepResult")));
+                result.put("stop", millis(finished.get("timestamp")));
+                run.results.put(str(finished.get("testStepId")), result);
+            }
+        } else if (envelope.containsKey("attachment")) {
+            Map<String, Object> attachment = map(envelope.get("attachment"));
+            TestCaseRun run = runs.get(str(attachment.get("testCaseStartedId")));
+            if (run != null) {
+                run.attachments.computeIfAbsent(str(attachment.get("testStepId")), key -> new ArrayList<>()).add(attachment);
+            }
+        } else if (envelope.containsKey("testCaseFinished")) {
+            Map<String, Object> finished = map(envelope.get("testCaseFinished"));
+            TestCaseRun run = runs.remove(str(finished.get("testCaseStartedId")));
+            if (run != null && run.testCase != null) {
+                finish(run, millis(finished.get("timestamp")));
+            }
+        }
+    }
+
+    private void gherkinDocument(Map<String, Object> document) {
+        Map<String, Object> feature = map(document.get("feature"));
+        if (feature.isEmpty()) {
+            return;
+        }
+        // Cucumber JSON keeps the scheme of file URIs and makes them relative to the working directory
+        String uri = str(document.get("uri"));
+        uri = uri.startsWith("file:") ? "file:" + ShardPlanner.normalize(uri) : uri;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("line", line(feature));
+        report.put("elements", new ArrayList<>());
+        report.put("name", str(feature.get("name")));
+        report.put("description", str(feature.get("description")));
+        report.put("id", toId(str(feature.get("name"))));
+        report.put("keyword", str(feature.get("keyword")));
+        report.put("uri", uri);
+        List<Map<String, Object>> tags = new ArrayList<>();
+        for (Object tag : list(feature.get("tags"))) {
+            Map<String, Object> location = map(map(tag).get("location"));
+            tags.add(ordered("name", map(tag).get("name"), "type", "Tag",
+                    "location", ordered("line", location.get("line"), "column", location.get("column"))));
+        }
+        report.put("tags", tags);
+        features.put(uri, report);
+        children(report, list(feature.get("children")), null);
+    }
+
+    private void children(Map<String, Object> feature, List<Object> children, Map<String, Object> inherited) {
+        Map<String, Object> background = inherited;
+        for (Object item : children) {
+            Map<String, Object> child = map(item);
+            if (child.containsKey("background")) {
+                background = map(child.get("background"));
+                indexSteps(background, background);
+            } else if (child.containsKey("rule")) {
+                children(feature, list(map(child.get("rule")).get("children")), background);
+            } else if (child.containsKey("scenario")) {
+                Map<String, Object> scenario = map(child.get("scenario"));
+                String id = str(scenario.get("id"));
+                scenarios.put(id, scenario);
+                featureOfNode.put(id, feature);
+                indexSteps(scenario, null);
+                for (Object examples : list(scenario.get("examples"))) {
+                    String examplesId = str(feature.get("id")) + ";" + toId(str(scenario.get("name")))
+                            + ";" + toId(str(map(examples).get("name")));
+                    int row = 2;
+                    for (Object body : list(map(examples).get("tableBody"))) {
+                        exampleIds.put(str(map(body).get("id")), examplesId + ";" + row++);
+                        exampleLines.put(str(map(body).get("id")), line(map(body)));
+                    }
+                }
+            }
+        }
+    }
+
+    private void indexSteps(Map<String, Object> parent, Map<String, Object> background) {
+        for (Object step : list(parent.get("steps"))) {
+            String id = str(map(step).get("id"));
+            steps.put(id, map(step));
+            if (background != null) {
+                backgroundOfStep.put(id, background);
+            }
+        }
+    }
+
+    private void finish(TestCaseRun run, long stop) throws IOException {
+        Map<String, Object> pickle = pickles.get(str(run.testCase.get("pickleId")));
+        List<Object> astNodeIds = list(pickle.get("astNodeIds"));
+        String scenarioId = str(astNodeIds.get(0));
+        String exampleId = astNodeIds.size() > 1 ? str(astNodeIds.get(astNodeIds.size() - 1)) : null;
+        Map<String, Object> scenario = scenarios.getOrDefault(scenarioId, Map.of());
+        Map<String, Object> feature = featureOfNode.get(scenarioId);
+        if (feature == null) {
+            return;
+        }
+        long line = exampleId != null ? exampleLines.get(exampleId) : line(scenario);
+
+        List<Object> testSteps = list(run.testCase.get("testSteps"));
+        learnStepHooks(testSteps);
+
+        Map<String, Object> element = new LinkedHashMap<>();
+        element.put("start_timestamp", Instant.ofEpochMilli(run.start).toString());
+        List<Map<String, Object>> before = new ArrayList<>();
+        List<Map<String, Object>> after = new ArrayList<>();
+        List<Map<String, Object>> scenarioSteps = new ArrayList<>();
+        Map<String, Object> background = null;
+        List<Map<String, Object>> backgroundSteps = new ArrayList<>();
+
+        List<Map<String, Object>> allureSteps = new ArrayList<>();
+        List<Map<String, Object>> allureAttachments = new ArrayList<>();
+        Map<String, Object> lastStep = null;
+        Map<String, Object> lastAllureStep = null;
+        Map<String, Object> failure = null;
+
+        for (Object item : testSteps) {
+            Map<String, Object> testStep = map(item);
+            String testStepId = str(testStep.get("id"));
+            Map<String, Object> result = run.results.getOrDefault(testStepId, Map.of("status", "SKIPPED"));
+            List<Map<String, Object>> attachments = run.attachments.getOrDefault(testStepId, List.of());
+            if (failure == null && !"PASSED".equals(result.get("status")) && !"SKIPPED".equals(result.get("status"))) {
+                failure = result;
+            }
+
+            if (testStep.containsKey("pickleStepId")) {
+                Map<String, Object> pickleStep = pickleSteps.get(str(testStep.get("pickleStepId")));
+                String astNodeId = str(list(pickleStep.get("astNodeIds")).get(0));
+                Map<String, Object> gherkinStep = steps.getOrDefault(astNodeId, Map.of());
+                Map<String, Object> step = jsonStep(testStep, pickleStep, gherkinStep, result, attachments);
+                Map<String, Object> stepBackground = backgroundOfStep.get(astNodeId);
+                if (stepBackground != null) {
+                    background = stepBackground;
+                    backgroundSteps.add(step);
+                } else {
+                    scenarioSteps.add(step);
+                }
+                lastStep = step;
+                lastAllureStep = allureStep(str(gherkinStep.get("keyword")) + str(pickleStep.get("text")),
+                        result, run.stepStarts.get(testStepId), attachments);
+                allureSteps.add(lastAllureStep);
+            } else {
+                String hookId = str(testStep.get("hookId"));
+                Map<String, Object> hook = jsonResult(result, locations.get(hookId), attachments);
+                if (lastStep == null) {
+                    before.add(hook);
+                    allureAttachments.addAll(allureAttachments(attachments));
+                } else if (stepHookIds.contains(hookId)) {
+                    list(lastStep.computeIfAbsent("after", key -> new ArrayList<>())).add(hook);
+                    list(lastAllureStep.get("attachments")).addAll(allureAttachments(attachments));
+                } else {
+                    after.add(hook);
+                    allureAttachments.addAll(allureAttachments(attachments));
+                }
+            }
+        }
+
+        if (background != null) {
+            Map<String, Object> backgroundElement = new LinkedHashMap<>();
+            backgroundElement.put("line", line(background));
+            backgroundElement.put("name", str(background.get("name")));
+            backgroundElement.put("description", str(background.get("description")));
+            backgroundElement.put("type", "background");
+            backgroundElement.put("keyword", str(background.get("keyword")));
+            backgroundElement.put("steps", backgroundSteps);
+            list(feature.get("elements")).add(backgroundElement);
+        }
+        if (!before.isEmpty()) {
+            element.put("before", before);
+        }
+        element.put("line", line);
+        element.put("name", str(pickle.get("name")));
+        element.put("description", str(scenario.get("description")));
+        element.put("id", exampleId != null ? exampleIds.get(exampleId)
+                : str(feature.get("id")) + ";" + toId(str(scenario.get("name"))));
+        if (!after.isEmpty()) {
+            element.put("after", after);
+        }
+        element.put("type", "scenario");
+        element.put("keyword", str(scenario.get("keyword")));
+        element.put("steps", scenarioSteps);
+        List<Map<String, Object>> tags = new ArrayList<>();
+        for (Object tag : list(pickle.get("tags"))) {
+            tags.add(ordered("name", map(tag).get("name")));
+        }
+        element.put("tags", tags);
+        list(feature.get("elements")).add(element);
+
+        writeAllureResult(feature, pickle, line, run.start, stop, failure, allureSteps, allureAttachments);
+        results++;
+    }
+
+    private void learnStepHooks(List<Object> testSteps) {
+        // Messages do not tell before/after hooks from step hooks; a hook that runs between two steps is a step hook
+        int firstStep = -1;
+        int lastStep = -1;
+        for (int i = 0; i < testSteps.size(); i++) {
+            if (map(testSteps.get(i)).containsKey("pickleStepId")) {
+                firstStep = firstStep < 0 ? i : firstStep;
+                lastStep = i;
+            }
+        }
+        for (int i = firstStep + 1; i < lastStep; i++) {
+            Map<String, Object> testStep = map(testSteps.get(i));
+            if (testStep.containsKey("hookId")) {
+                stepHookIds.add(str(testStep.get("hookId")));
+            }
+        }
+    }
+
+    private Map<String, Object> jsonStep(Map<String, Object> testStep, Map<String, Object> pickleStep,
+                                         Map<String, Object> gherkinStep, Map<String, Object> result,
+                                         List<Map<String, Object>> attachments) {
+        Map<String, Object> step = new LinkedHashMap<>();
+        step.put("result", jsonStatus(result));
+        step.put("line", line(gherkinStep));
+        step.put("name", str(pickleStep.get("text")));
+        Map<String, Object> match = new LinkedHashMap<>();
+        List<Object> argumentLists = list(testStep.get("stepMatchArgumentsLists"));
+        List<Object> matchArguments = argumentLists.isEmpty() ? List.of()
+                : list(map(argumentLists.get(0)).get("stepMatchArguments"));
+        if (!matchArguments.isEmpty()) {
+            List<Map<String, Object>> arguments = new ArrayList<>();
+            for (Object argument : matchArguments) {
+                Map<String, Object> group = map(map(argument).get("group"));
+                arguments.add(ordered("val", group.get("value"), "offset", group.get("start")));
+            }
+            match.put("arguments", arguments);
+        }
+        List<Object> definitionIds = list(testStep.get("stepDefinitionIds"));
+        if (definitionIds.size() == 1) {
+            match.put("location", locations.get(str(definitionIds.get(0))));
+        }
+        step.put("match", match);
+        step.put("keyword", str(gherkinStep.get("keyword")));
+        Map<String, Object> argument = map(pickleStep.get("argument"));
+        if (argument.containsKey("docString")) {
+            Map<String, Object> docString = map(argument.get("docString"));
+            Map<String, Object> value = new LinkedHashMap<>();
+            if (!str(docString.get("mediaType")).isEmpty()) {
+                value.put("content_type", docString.get("mediaType"));
+            }
+            value.put("line", line(map(gherkinStep.get("docString"))));
+            value.put("value", docString.get("content"));
+            step.put("doc_string", value);
+        }
+        if (argument.containsKey("dataTable")) {
+            List<Map<String, Object>> rows = new ArrayList<>();
+            for (Object row : list(map(argument.get("dataTable")).get("rows"))) {
+                List<Object> cells = new ArrayList<>();
+                for (Object cell : list(map(row).get("cells"))) {
+                    cells.add(map(cell).get("value"));
+                }
+                rows.add(ordered("cells", cells));
+            }
+            step.put("rows", rows);
+        }
+        if (!attachments.isEmpty()) {
+            step.put("embeddings", embeddings(attachments));
+        }
+        return step;
+    }
+
+    private Map<String, Object> jsonResult(Map<String, Object> result, String location, List<Map<String, Object>> attachments) {
+        Map<String, Object> hook = new LinkedHashMap<>();
+        hook.put("result", jsonStatus(result));
+        hook.put("match", ordered("location", location));
+        if (!attachments.isEmpty()) {
+            hook.put("embeddings", embeddings(attachments));
+        }
+        return hook;
+    }
+
+    private static Map<String, Object> jsonStatus(Map<String, Object> result) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        long duration = nanos(result.get("duration"));
+        if (duration > 0) {
+            status.put("duration", duration);
+        }
+        status.put("status", str(result.get("status")).toLowerCase());
+        if (result.get("message") != null) {
+            status.put("error_message", result.get("message"));
+        }
+        return status;
+    }
+
+    private static List<Map<String, Object>> embeddings(List<Map<String, Object>> attachments) {
+        List<Map<String, Object>> embeddings = new ArrayList<>();
+        for (Map<String, Object> attachment : attachments) {
+            Map<String, Object> embedding = new LinkedHashMap<>();
+            embedding.put("data", Base64.getEncoder().encodeToString(body(attachment)));
+            embedding.put("mime_type", attachment.get("mediaType"));
+            if (attachment.get("fileName") != null) {
+                embedding.put("name", attachment.get("fileName"));
+            }
+            embeddings.add(embedding);
+        }
+        return embeddings;
+    }
+
+    private Map<String, Object> allureStep(String name, Map<String, Object> result, Long start,
+                                           List<Map<String, Object>> attachments) throws IOException {
+        Map<String, Object> step = new LinkedHashMap<>();
+        step.put("name", name);
+        step.put("status", allureStatus(result));
+        if (result.get("message") != null) {
+            step.put("statusDetails", statusDetails(result));
+        }
+        step.put("stage", "finished");
+        step.put("steps", List.of());
+        step.put("attachments", allureAttachments(attachments));
+        step.put("parameters", List.of());
+        Object stop = result.get("stop");
+        step.put("start", start != null ? start : stop);
+        step.put("stop", stop != null ? stop : start);
+        return step;
+    }
+
+    private List<Map<String, Object>> allureAttachments(List<Map<String, Object>> attachments) throws IOException {
+        List<Map<String, Object>> sources = new ArrayList<>();
+        for (Map<String, Object> attachment : attachments) {
+            String mediaType = str(attachment.get("mediaType"));
+            String source = UUID.randomUUID() + "-attachment." + extension(mediaType);
+            Files.write(allureResults.resolve(source), body(attachment));
+            String name = attachment.get("fileName") != null ? str(attachment.get("fileName")) : mediaType;
+            sources.add(ordered("name", name, "source", source, "type", mediaType));
+        }
+        return sources;
+    }
+
+    private void writeAllureResult(Map<String, Object> feature, Map<String, Object> pickle, long line, long start,
+                                   long stop, Map<String, Object> failure, List<Map<String, Object>> steps,
+                                   List<Map<String, Object>> attachments) throws IOException {
+        String uuid = UUID.randomUUID().toString();
+        String fullName = feature.get("uri") + ":" + line;
+        String featureName = str(feature.get("name"));
+        List<Map<String, Object>> labels = new ArrayList<>();
+        labels.add(ordered("name", "feature", "value", featureName));
+        labels.add(ordered("name", "suite", "value", featureName));
+        labels.add(ordered("name", "framework", "value", "cucumberjvm"));
+        labels.add(ordered("name", "language", "value", "java"));
+        for (Object tag : list(pickle.get("tags"))) {
+            labels.add(ordered("name", "tag", "value", str(map(tag).get("name")).substring(1)));
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("uuid", uuid);
+        result.put("historyId", md5(fullName));
+        result.put("testCaseId", md5(fullName));
+        result.put("fullName", fullName);
+        result.put("labels", labels);
+        result.put("links", List.of());
+        result.put("name", str(pickle.get("name")));
+        result.put("status", failure == null ? "passed" : allureStatus(failure));
+        if (failure != null && failure.get("message") != null) {
+            result.put("statusDetails", statusDetails(failure));
+        }
+        result.put("stage", "finished");
+        result.put("steps", steps);
+        result.put("attachments", attachments);
+        result.put("parameters", List.of());
+        result.put("start", start);
+        result.put("stop", stop);
+        try (Writer writer = Files.newBufferedWriter(allureResults.resolve(uuid + "-result.json"));
+             JsonOutput out = json.newOutput(writer)) {
+            out.write(result);
+        }
+    }
+
+    private static String allureStatus(Map<String, Object> result) {
+        switch (str(result.get("status"))) {
+            case "PASSED":
+                return "passed";
+            case "FAILED":
+                // Allure reports assertion failures as failed and every other exception as broken
+                Map<String, Object> exception = map(result.get("exception"));
+                String type = str(exception.get("type"));
+                return exception.isEmpty() || type.contains("AssertionError") || type.contains("AssertionFailedError")
+                        ? "failed" : "broken";
+            default:
+                return "skipped";
+        }
+    }
+
+    private static Map<String, Object> statusDetails(Map<String, Object> result) {
+        String message = str(result.get("message"));
+        int firstLine = message.indexOf('\n');
+        return ordered("message", firstLine < 0 ? message : message.substring(0, firstLine), "trace", message);
+    }
+
+    private static String extension(String mediaType) {
+        switch (mediaType) {
+            case "image/png":
+                return "png";
+            case "image/jpeg":
+                return "jpg";
+            case "application/json":
+                return "json";
+            case "text/html":
+                return "html";
+            case "text/uri-list":
+                return "uri";
+            case "text/plain":
+                return "txt";
+            default:
+                return "attach";
+        }
+    }
+
+    private static byte[] body(Map<String, Object> attachment) {
+        String body = str(attachment.get("body"));
+        return "BASE64".equals(attachment.get("contentEncoding"))
+                ? Base64.getDecoder().decode(body) : body.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String location(Map<String, Object> sourceReference) {
+        Map<String, Object> method = map(sourceReference.get("javaMethod"));
+        if (method.isEmpty()) {
+            return null;
+        }
+        List<String> parameterTypes = new ArrayList<>();
+        for (Object type : list(method.get("methodParameterTypes"))) {
+            parameterTypes.add(str(type));
+        }
+        return method.get("className") + "." + method.get("methodName") + "(" + String.join(",", parameterTypes) + ")";
+    }
+
+    private static String toId(String name) {
+        return name.replaceAll("[\\s'_,!]", "-").toLowerCase();
+    }
+
+    private static String md5(String value) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8))) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long line(Map<String, Object> node) {
+        Object line = map(node.get("location")).get("line");
+        return line instanceof Number ? ((Number) line).longValue() : 0;
+    }
+
+    private static long nanos(Object duration) {
+        Map<String, Object> value = map(duration);
+        return asLong(value.get("seconds")) * 1_000_000_000L + asLong(value.get("nanos"));
+    }
+
+    private static long millis(Object timestamp) {
+        Map<String, Object> value = map(timestamp);
+        return asLong(value.get("seconds")) * 1_000L + asLong(value.get("nanos")) / 1_000_000L;
+    }
+
+    private static long asLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    private static Map<String, Object> ordered(Object... keysAndValues) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> map(Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : new HashMap<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> list(Object value) {
+        return value instanceof List ? (List<Object>) value : new ArrayList<>();
+    }
+
+    private static String str(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static class TestCaseRun {
+        private final Map<String, Object> testCase;
+        private final long start;
+        private final Map<String, Long> stepStarts = new HashMap<>();
+        private final Map<String, Map<String, Object>> results = new HashMap<>();
+        private final Map<String, List<Map<String, Object>>> attachments = new HashMap<>();
+
+        private TestCaseRun(Map<String, Object> testCase, Map<String, Object> timestamp) {
+            this.testCase = testCase;
+            this.start = millis(timestamp);
+        }
+    }
+}
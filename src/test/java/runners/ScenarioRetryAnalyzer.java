@@ -0,0 +1,47 @@
+package runners;
+
+import core.ConfigReader;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import org.slf4j.Logger;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+import utils.LoggerUtil;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reruns a failed scenario in the same JVM until it passes or retry.maxAttempts is reached.
+ * Every attempt goes through the normal hooks, so it reuses a pooled browser after a state reset,
+ * and Cucumber reports each attempt as its own test case.
+ */
+public class ScenarioRetryAnalyzer implements IRetryAnalyzer {
+    private static final Logger logger = LoggerUtil.getLogger(ScenarioRetryAnalyzer.class);
+    private static final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean retry(ITestResult result) {
+        Object[] parameters = result.getParameters();
+        if (parameters.length > 0 && parameters[0] instanceof DataPartitionPickle) {
+            // Failed rows were already retried one by one inside the partition
+            return false;
+        }
+        String scenario = describe(result);
+        int attempt = attempts.merge(scenario, 1, Integer::sum);
+        if (attempt >= ConfigReader.getRetryMaxAttempts()) {
+            return false;
+        }
+        LoggerUtil.logWarning(logger, "Attempt {} of {} failed, rerunning", attempt, scenario);
+        return true;
+    }
+
+    private static String describe(ITestResult result) {
+        Object[] parameters = result.getParameters();
+        if (parameters.length > 0 && parameters[0] instanceof PickleWrapper) {
+            Pickle pickle = ((PickleWrapper) parameters[0]).getPickle();
+            return "'" + pickle.getName() + "' (" + pickle.getUri() + ":" + pickle.getLine() + ")";
+        }
+        return result.getName();
+    }
+}
@@ -0,0 +1,153 @@
+package runners;
+
+import core.ConfigReader;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import utils.LoggerUtil;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits the scenarios of a run into shard.count shards and keeps those of shard.index.
+ * Scenario durations come from the history ShardReportMerger writes next to the merged
+ * Cucumber JSON report (the report of the current run is truncated before scenarios are
+ * planned, so it cannot serve as history); scenarios are assigned
+ * longest first to the shard with the least total time, so every shard finishes at about
+ * the same time. Scenarios without history are assumed to take the average known duration.
+ * Every shard computes the same plan, so they only need the same report and the same features.
+ */
+public class ShardPlanner {
+    private static final Logger logger = LoggerUtil.getLogger(ShardPlanner.class);
+    private static final Path WORKING_DIR = Paths.get("").toAbsolutePath();
+
+    /**
+     * Keep the scenarios assigned to the configured shard
+     * @param scenarios Data provider rows of AbstractTestNGCucumberTests, a PickleWrapper first
+     * @return Rows of this shard, or all rows when sharding is off
+     */
+    public static Object[][] select(Object[][] scenarios) {
+        int count = ConfigReader.getShardCount();
+        int index = ConfigReader.getShardIndex();
+        if (count <= 1) {
+            return scenarios;
+        }
+        if (index < 0 || index >= count) {
+            throw new IllegalArgumentException("shard.index must be between 0 and " + (count - 1) + " but was " + index);
+        }
+
+        Path historyFile = Paths.get(ConfigReader.getShardHistoryFile());
+        Map<String, Long> history = readDurations(historyFile);
+        if (history.isEmpty()) {
+            LoggerUtil.logWarning(logger, "No scenario durations in {}, shards are balanced by scenario count. "
+                    + "Merge the shard reports with ShardReportMerger to write the history", historyFile);
+        }
+        long fallback = history.isEmpty() ? 1 : history.values().stream().mapToLong(Long::longValue).sum() / history.size();
+
+        List<Object[]> ordered = new ArrayList<>(List.of(scenarios));
+        Map<Object[], Long> durations = new HashMap<>();
+        for (Object[] row : ordered) {
+            durations.put(row, history.getOrDefault(key(((PickleWrapper) row[0]).getPickle()), fallback));
+        }
+        // Ties are broken by location so that every shard sorts identically
+        ordered.sort(Comparator.<Object[]>comparingLong(durations::get).reversed()
+                .thenComparing(row -> key(((PickleWrapper) row[0]).getPickle())));
+
+        long[] loads = new long[count];
+        List<Object[]> selected = new ArrayList<>();
+        for (Object[] row : ordered) {
+            int target = 0;
+            for (int shard = 1; shard < count; shard++) {
+                if (loads[shard] < loads[target]) {
+                    target = shard;
+                }
+            }
+            loads[target] += durations.get(row);
+            if (target == index) {
+                selected.add(row);
+            }
+        }
+        logger.info("Shard {}/{}: {} of {} scenarios, estimated {} s (history of {} scenarios)",
+                index, count, selected.size(), scenarios.length, loads[index] / 1_000_000_000L, history.size());
+        return selected.toArray(new Object[0][]);
+    }
+
+    /**
+     * Read scenario durations from a Cucumber JSON report
+     * @param report Report of a previous run, usually the shard history
+     * @return Nanoseconds per scenario location, empty when the report is missing or unreadable
+     */
+    static Map<String, Long> readDurations(Path report) {
+        Map<String, Long> durations = new HashMap<>();
+        if (!Files.exists(report)) {
+            return durations;
+        }
+        try (Reader reader = Files.newBufferedReader(report)) {
+            List<Map<String, Object>> features = new Json().toType(reader, Json.LIST_OF_MAPS_TYPE);
+            for (Map<String, Object> feature : features) {
+                String uri = normalize(String.valueOf(feature.get("uri")));
+                long background = 0;
+                for (Object item : (List<?>) feature.getOrDefault("elements", List.of())) {
+                    Map<?, ?> element = (Map<?, ?>) item;
+                    long duration = sumDurations(element.get("before")) + sumDurations(element.get("steps"))
+                            + sumDurations(element.get("after"));
+                    if ("background".equals(element.get("type"))) {
+                        // Cucumber reports the background separately right before the scenario it ran for
+                        background = duration;
+                        continue;
+                    }
+                    durations.merge(uri + ":" + element.get("line"), duration + background, Long::sum);
+                    background = 0;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LoggerUtil.logWarning(logger, "Ignoring unreadable shard history {}: {}", report, e.getMessage());
+        }
+        return durations;
+    }
+
+    private static long sumDurations(Object items) {
+        long total = 0;
+        if (items instanceof List) {
+            for (Object item : (List<?>) items) {
+                Object result = ((Map<?, ?>) item).get("result");
+                Object duration = result instanceof Map ? ((Map<?, ?>) result).get("duration") : null;
+                if (duration instanceof Number) {
+                    total += ((Number) duration).longValue();
+                }
+            }
+        }
+        return total;
+    }
+
+    private static String key(Pickle pickle) {
+        return normalize(pickle.getUri().toString()) + ":" + pickle.getLine();
+    }
+
+    /**
+     * Reduce a feature URI to a path relative to the working directory,
+     * as Cucumber does for the JSON report
+     */
+    static String normalize(String uri) {
+        String path = uri.startsWith("file:") ? URI.create(uri).getPath() : uri.replaceFirst("^classpath:", "");
+        if (path == null) {
+            path = uri.substring("file:".length());
+        }
+        Path location = Paths.get(path);
+        if (location.isAbsolute() && location.startsWith(WORKING_DIR)) {
+            location = WORKING_DIR.relativize(location);
+        }
+        return location.toString().replace('\\', '/');
+    }
+}
@@ -0,0 +1,102 @@
+package runners;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Combines the reports of sharded runs into one.
+ * Usage: ShardReportMerger &lt;outputDir&gt; &lt;shardDir&gt;...
+ * Each shard directory is the target directory of one shard. Features of the shard
+ * cucumber-report.json files are merged by URI into outputDir/cucumber-report.json and
+ * outputDir/shard-history.json, the duration history of the next sharded run, and all
+ * allure-results files are copied into outputDir/allure-results. The history is a separate
+ * file because the json plugin truncates cucumber-report.json when a run starts.
+ */
+public class ShardReportMerger {
+    private static final String CUCUMBER_REPORT = "cucumber-report.json";
+    private static final String SHARD_HISTORY = "shard-history.json";
+    private static final String ALLURE_RESULTS = "allure-results";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ShardReportMerger <outputDir> <shardDir>...");
+            System.exit(2);
+        }
+        Path output = Paths.get(args[0]);
+        Files.createDirectories(output.resolve(ALLURE_RESULTS));
+
+        Map<String, Map<String, Object>> features = new LinkedHashMap<>();
+        int results = 0;
+        for (int i = 1; i < args.length; i++) {
+            Path shard = Paths.get(args[i]);
+            mergeCucumberReport(shard.resolve(CUCUMBER_REPORT), features);
+            results += copyAllureResults(shard.resolve(ALLURE_RESULTS), output.resolve(ALLURE_RESULTS));
+        }
+
+        writeReport(output.resolve(CUCUMBER_REPORT), features);
+        writeReport(output.resolve(SHARD_HISTORY), features);
+        System.out.printf("Merged %d shards: %d features, %d Allure result files into %s%n",
+                args.length - 1, features.size(), results, output.toAbsolutePath());
+    }
+
+    private static void writeReport(Path file, Map<String, Map<String, Object>> features) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file);
+             JsonOutput json = new Json().newOutput(writer)) {
+            json.write(new ArrayList<>(features.values()));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void mergeCucumberReport(Path report, Map<String, Map<String, Object>> features) throws IOException {
+        if (!Files.exists(report)) {
+            System.err.println("Skipping missing report " + report);
+            return;
+        }
+        List<Map<String, Object>> shardFeatures;
+        try (Reader reader = Files.newBufferedReader(report)) {
+            shardFeatures = new Json().toType(reader, Json.LIST_OF_MAPS_TYPE);
+        }
+        for (Map<String, Object> feature : shardFeatures) {
+            String uri = String.valueOf(feature.get("uri"));
+            Map<String, Object> merged = features.get(uri);
+            if (merged == null) {
+                merged = new LinkedHashMap<>(feature);
+                merged.put("elements", new ArrayList<>((List<Object>) feature.getOrDefault("elements", List.of())));
+                features.put(uri, merged);
+            } else {
+                ((List<Object>) merged.get("elements")).addAll((List<Object>) feature.getOrDefault("elements", List.of()));
+            }
+        }
+    }
+
+    private static int copyAllureResults(Path source, Path target) throws IOException {
+        if (!Files.isDirectory(source)) {
+            return 0;
+        }
+        // Result files are named by UUID, so shards never collide; shared files such as
+        // environment.properties are simply taken from the last shard
+        int copied = 0;
+        try (Stream<Path> files = Files.list(source)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (Files.isRegularFile(file)) {
+                    Files.copy(file, target.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                    copied++;
+                }
+            }
+        }
+        return copied;
+    }
+}
@@ -0,0 +1,181 @@
+package runners;
+
+import core.ConfigReader;
+import core.StepTimer;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStep;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+import org.slf4j.Logger;
+import utils.LoggerUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cucumber plugin that splits the time of every step, hooks included, into WebDriver command,
+ * explicit wait, sleep and framework time as measured by StepTimer. At the end of the run it writes
+ * summary.txt with the steps that took the most time in total, and steps.collapsed with one line per
+ * feature, scenario, step and nested section in the collapsed-stack format of flame graph tools.
+ * Only aggregates are kept, so memory does not grow with the number of scenarios.
+ * Usage: runners.StepProfiler:target/step-profile; recording is switched by profiler.enabled.
+ */
+public class StepProfiler implements ConcurrentEventListener {
+    private static final Logger logger = LoggerUtil.getLogger(StepProfiler.class);
+    private static final StepTimer.Kind[] KINDS = StepTimer.Kind.values();
+
+    private final Path outputDir;
+    private final boolean enabled = ConfigReader.isProfilerEnabled();
+    private final Map<String, StepStats> steps = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> collapsed = new ConcurrentHashMap<>();
+
+    public StepProfiler(File outputDir) {
+        this.outputDir = outputDir.toPath();
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        if (!enabled) {
+            return;
+        }
+        // Step events are published on the thread that runs the scenario
+        publisher.registerHandlerFor(TestStepStarted.class, event -> StepTimer.start());
+        publisher.registerHandlerFor(TestStepFinished.class, this::stepFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> write());
+    }
+
+    private void stepFinished(TestStepFinished event) {
+        StepTimer timer = StepTimer.stop();
+        if (timer == null) {
+            return;
+        }
+        long duration = event.getResult().getDuration().toNanos();
+        String step = label(event.getTestStep());
+        StepStats stats = steps.computeIfAbsent(step, key -> new StepStats());
+        stats.count.increment();
+        stats.totalNanos.add(duration);
+        stats.maxNanos.accumulateAndGet(duration, Math::max);
+        long measured = 0;
+        for (StepTimer.Kind kind : KINDS) {
+            stats.nanosByKind[kind.ordinal()].add(timer.getNanos(kind));
+            measured += timer.getNanos(kind);
+        }
+
+        String stack = frame(fileName(event.getTestCase())) + ";" + frame(event.getTestCase().getName()) + ";" + frame(step);
+        addCollapsed(stack, Math.max(0, duration - measured));
+        timer.getNanosByPath().forEach((path, nanos) -> addCollapsed(stack + ";" + path, nanos));
+    }
+
+    private void addCollapsed(String stack, long nanos) {
+        if (nanos > 0) {
+            collapsed.computeIfAbsent(stack, key -> new LongAdder()).add(nanos);
+        }
+    }
+
+    private void write() {
+        List<Map.Entry<String, StepStats>> slowest = new ArrayList<>(steps.entrySet());
+        slowest.sort(Comparator.comparingLong((Map.Entry<String, StepStats> entry) -> entry.getValue().totalNanos.sum()).reversed());
+
+        long total = 0;
+        long[] byKind = new long[KINDS.length];
+        for (StepStats stats : steps.values()) {
+            total += stats.totalNanos.sum();
+            for (StepTimer.Kind kind : KINDS) {
+                byKind[kind.ordinal()] += stats.nanosByKind[kind.ordinal()].sum();
+            }
+        }
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("Step time %.1f s: %s%n%n", total / 1e9, breakdown(total, byKind)));
+        summary.append(String.format("%9s %7s %9s %9s  %-48s %s%n", "total s", "count", "avg ms", "max ms", "breakdown", "step"));
+        for (Map.Entry<String, StepStats> entry : slowest.subList(0, Math.min(ConfigReader.getProfilerTopSteps(), slowest.size()))) {
+            StepStats stats = entry.getValue();
+            long stepTotal = stats.totalNanos.sum();
+            long[] stepKinds = new long[KINDS.length];
+            for (StepTimer.Kind kind : KINDS) {
+                stepKinds[kind.ordinal()] = stats.nanosByKind[kind.ordinal()].sum();
+            }
+            summary.append(String.format("%9.1f %7d %9.1f %9.1f  %-48s %s%n", stepTotal / 1e9, stats.count.sum(),
+                    stepTotal / 1e6 / stats.count.sum(), stats.maxNanos.get() / 1e6, breakdown(stepTotal, stepKinds), entry.getKey()));
+        }
+
+        StringBuilder stacks = new StringBuilder();
+        new TreeMap<>(collapsed).forEach((stack, nanos) -> stacks.append(stack).append(' ').append(nanos.sum() / 1_000).append('\n'));
+        try {
+            Files.createDirectories(outputDir);
+            Files.writeString(outputDir.resolve("summary.txt"), summary, StandardCharsets.UTF_8);
+            Files.writeString(outputDir.resolve("steps.collapsed"), stacks, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LoggerUtil.logError(logger, "Failed to write step profile to " + outputDir, e);
+            return;
+        }
+        logger.info("Step profile written to {}\n{}", outputDir.toAbsolutePath(), summary);
+    }
+
+    private static String breakdown(long total, long[] byKind) {
+        StringBuilder text = new StringBuilder();
+        long framework = total;
+        for (StepTimer.Kind kind : KINDS) {
+            text.append(kind.getLabel()).append(' ').append(percent(byKind[kind.ordinal()], total)).append("%, ");
+            framework -= byKind[kind.ordinal()];
+        }
+        return text.append("framework ").append(percent(Math.max(0, framework), total)).append('%').toString();
+    }
+
+    private static long percent(long part, long total) {
+        return total == 0 ? 0 : Math.round(part * 100.0 / total);
+    }
+
+    private static String label(TestStep step) {
+        if (step instanceof PickleStepTestStep) {
+            PickleStepTestStep pickleStep = (PickleStepTestStep) step;
+            return pickleStep.getStep().getKeyword().trim() + " " + pickleStep.getStep().getText();
+        }
+        if (step instanceof HookTestStep) {
+            // e.g. hooks.Hooks.afterScenario(io.cucumber.java.Scenario)
+            String location = step.getCodeLocation();
+            int arguments = location.indexOf('(');
+            return "@" + ((HookTestStep) step).getHookType() + " " + (arguments > 0 ? location.substring(0, arguments) : location);
+        }
+        return step.getCodeLocation();
+    }
+
+    private static String fileName(TestCase testCase) {
+        Path path = Paths.get(testCase.getUri().getSchemeSpecificPart());
+        return path.getFileName() == null ? testCase.getUri().toString() : path.getFileName().toString();
+    }
+
+    private static String frame(String name) {
+        // ';' separates frames and a line holds one stack
+        return name.replace(';', ',').replace('\n', ' ');
+    }
+
+    private static class StepStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder[] nanosByKind = new LongAdder[KINDS.length];
+
+        private StepStats() {
+            for (int i = 0; i < nanosByKind.length; i++) {
+                nanosByKind[i] = new LongAdder();
+            }
+        }
+    }
+}
@@ -1,19 +1,20 @@
 package runners;
 
-import io.cucumber.testng.AbstractTestNGCucumberTests;
 import io.cucumber.testng.CucumberOptions;
-import org.testng.annotations.DataProvider;
 
 @CucumberOptions(
         features = "src/test/resources/features",
         glue = {"steps", "hooks"},
+        // Visual checkpoints need baselines recorded for the browser and viewport, see README
+        tags = "not @visual",
         plugin = {
                 "pretty",
                 "html:target/cucumber-html-report.html",
                 "json:target/cucumber-report.json",
-                "io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm"
+                "io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm",
+                "runners.StepProfiler:target/step-profile"
         },
         monochrome = true
 )
-public class TestRunner extends AbstractTestNGCucumberTests {
-}
\ No newline at end of file
+public class TestRunner extends AbstractCucumberRunner {
+}
@@ -0,0 +1,25 @@
+package steps;
+
+import core.DriverFactory;
+import io.cucumber.java.en.Then;
+import org.slf4j.Logger;
+import pages.LoginPage;
+import utils.LoggerUtil;
+
+public class VisualSteps {
+    private static final Logger logger = LoggerUtil.getLogger(VisualSteps.class);
+
+    @Then("Login page should match visual baseline {string}")
+    public void login_page_should_match_visual_baseline(String name) {
+        LoggerUtil.logTestStep(logger, "Comparing login page with visual baseline " + name);
+        new LoginPage(DriverFactory.getDriver()).verifyPageMatchesBaseline(name);
+        LoggerUtil.logTestStep(logger, "Login page matches visual baseline " + name);
+    }
+
+    @Then("Login box should match visual baseline {string}")
+    public void login_box_should_match_visual_baseline(String name) {
+        LoggerUtil.logTestStep(logger, "Comparing login box with visual baseline " + name);
+        new LoginPage(DriverFactory.getDriver()).verifyLoginBoxMatchesBaseline(name);
+        LoggerUtil.logTestStep(logger, "Login box matches visual baseline " + name);
+    }
+}
@@ -2,8 +2,14 @@ package utils;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class LoggerUtil {
+    private static final String SEPARATOR = "=".repeat(50);
+    private static final String SCENARIO_KEY = "scenario";
     
     /**
      * Get logger instance for the calling class
@@ -39,7 +45,7 @@ public class LoggerUtil {
      */
     public static void logScenarioStart(Logger logger, String scenarioName) {
         logger.info("[SCENARIO START] {}", scenarioName);
-        logger.info("=" .repeat(50));
+        logger.info(SEPARATOR);
     }
     
     /**
@@ -49,7 +55,7 @@ public class LoggerUtil {
      * @param status Status of the scenario (PASSED/FAILED)
      */
     public static void logScenarioEnd(Logger logger, String scenarioName, String status) {
-        logger.info("=" .repeat(50));
+        logger.info(SEPARATOR);
         logger.info("[SCENARIO END] {} - Status: {}", scenarioName, status);
     }
     
@@ -62,13 +68,25 @@ public class LoggerUtil {
         logger.debug("[BROWSER ACTION] {}", action);
     }
     
+    /**
+     * Log browser action, formatting the message only when DEBUG is enabled
+     * @param logger The logger instance
+     * @param format Message pattern with {} placeholders
+     * @param arg Placeholder value
+     */
+    public static void logBrowserAction(Logger logger, String format, Object arg) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("[BROWSER ACTION] " + format, arg);
+        }
+    }
+    
     /**
      * Log element interaction
      * @param logger The logger instance
      * @param action Action performed on element
-     * @param locator Element locator
+     * @param locator Element locator, converted to text only when DEBUG is enabled
      */
-    public static void logElementAction(Logger logger, String action, String locator) {
+    public static void logElementAction(Logger logger, String action, Object locator) {
         logger.debug("[ELEMENT ACTION] {} on element: {}", action, locator);
     }
     
@@ -101,6 +119,31 @@ public class LoggerUtil {
         logger.warn("[WARNING] {}", message);
     }
     
+    /**
+     * Log warning message, formatting it only when WARN is enabled
+     * @param logger The logger instance
+     * @param format Message pattern with {} placeholders
+     * @param arg Placeholder value
+     */
+    public static void logWarning(Logger logger, String format, Object arg) {
+        if (logger.isWarnEnabled()) {
+            logger.warn("[WARNING] " + format, arg);
+        }
+    }
+    
+    /**
+     * Log warning message, formatting it only when WARN is enabled
+     * @param logger The logger instance
+     * @param format Message pattern with {} placeholders
+     * @param arg1 First placeholder value
+     * @param arg2 Second placeholder value
+     */
+    public static void logWarning(Logger logger, String format, Object arg1, Object arg2) {
+        if (logger.isWarnEnabled()) {
+            logger.warn("[WARNING] " + format, arg1, arg2);
+        }
+    }
+    
     /**
      * Log test data information
      * @param logger The logger instance
@@ -108,8 +151,25 @@ public class LoggerUtil {
      * @param dataValue Data value (will be masked if it contains 'password')
      */
     public static void logTestData(Logger logger, String dataKey, String dataValue) {
-        String maskedValue = dataKey.toLowerCase().contains("password") ? "****" : dataValue;
-        logger.info("[TEST DATA] {}: {}", dataKey, maskedValue);
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        logger.info("[TEST DATA] {}: {}", dataKey, mask(dataKey, dataValue));
+    }
+
+    /**
+     * Describe a data row for logs, reports and failure messages
+     * @param row Column names mapped to values
+     * @return The row as {column=value, ...} with password columns masked as in logTestData
+     */
+    public static String maskTestData(Map<String, String> row) {
+        Map<String, String> masked = new LinkedHashMap<>();
+        row.forEach((column, value) -> masked.put(column, mask(column, value)));
+        return masked.toString();
+    }
+
+    private static String mask(String dataKey, String dataValue) {
+        return dataKey.toLowerCase().contains("password") ? "****" : dataValue;
     }
     
     /**
@@ -129,4 +189,16 @@ public class LoggerUtil {
     public static void logTestSuite(Logger logger, String message) {
         logger.info("[TEST SUITE] {}", message);
     }
-}
\ No newline at end of file
+
+    /**
+     * Tag every log line of the current thread with a scenario until clearScenario()
+     * @param scenario Scenario name, shown as %X{scenario} in the log pattern
+     */
+    public static void bindScenario(String scenario) {
+        MDC.put(SCENARIO_KEY, scenario);
+    }
+
+    public static void clearScenario() {
+        MDC.remove(SCENARIO_KEY);
+    }
+}
@@ -10,4 +10,29 @@ Feature: SauceDemo Login
     Given User is on SauceDemo login page
     When User enters invalid username and password
     And User clicks on the login button
-    Then User should see an error message
\ No newline at end of file
+    Then User should see an error message
+
+  Scenario: Cached login session is reused
+    Given User is logged in as "default"
+    Then User should be redirected to the home page
+
+  Scenario: Cached login session is restored in a later scenario
+    Given User is logged in as "default"
+    Then User should be redirected to the home page
+
+  @authenticated
+  Scenario: Authenticated scenario starts on the home page
+    Then User should be on the home page
+
+  @visual
+  Scenario: Login page matches its visual baseline
+    Given User is on SauceDemo login page
+    Then Login page should match visual baseline "login-page"
+    And Login box should match visual baseline "login-box"
+
+  @data:logins.csv
+  Scenario: Login with credentials from the dataset
+    Given User is on SauceDemo login page
+    When User enters username "<username>" and password "<password>"
+    And User clicks on the login button
+    Then Login outcome should be "<outcome>"